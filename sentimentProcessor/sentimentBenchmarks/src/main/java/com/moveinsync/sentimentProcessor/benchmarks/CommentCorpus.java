@@ -0,0 +1,75 @@
+package com.moveinsync.sentimentProcessor.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Deterministic comment corpora shaped like production feedback.
+ */
+final class CommentCorpus {
+
+    private static final String[] WORDS = {
+            "driver", "was", "the", "cab", "ride", "on", "time", "today", "very", "route", "office", "pickup",
+            "drop", "again", "late", "rude", "good", "clean", "polite", "safe", "slow", "best", "traffic", "ac",
+            "music", "seat", "bad", "excellent", "punctual", "dirty", "unprofessional", "awesome", "poor"
+    };
+
+    private static final String[] NON_ASCII = {
+            "बहुत अच्छा ड्राइवर", "गाड़ी साफ थी", "très bien", "conducteur poli", "ड्राइवर लेट था",
+            "👍 good ride", "😡 late again", "ÇOK İYİ", "sürücü kibar", "ஓட்டுநர் நல்லவர்"
+    };
+
+    private static final String[] CANNED = {
+            "good", "Good", "late again", "Late again ", "ok", "nice ride", "driver was rude", "clean cab",
+            "thanks", "on time"
+    };
+
+    private CommentCorpus() {
+    }
+
+    static String[] generate(String kind, int size) {
+        Random random = new Random(42);
+        String[] corpus = new String[size];
+        for (int i = 0; i < size; i++) {
+            corpus[i] = switch (kind) {
+                case "short" -> sentence(random, 2 + random.nextInt(6));
+                case "long" -> sentence(random, 60 + random.nextInt(140));
+                case "nonascii" -> NON_ASCII[random.nextInt(NON_ASCII.length)] + " " + sentence(random, 3);
+                case "repeated" -> CANNED[random.nextInt(CANNED.length)];
+                default -> throw new IllegalArgumentException("Unknown corpus " + kind);
+            };
+        }
+        return corpus;
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0)
+                sb.append(' ');
+            String word = WORDS[random.nextInt(WORDS.length)];
+            sb.append(random.nextInt(8) == 0 ? word.toUpperCase() : word);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Synthetic model in the HashedLinearModel text format, with weights for
+     * every corpus word and a handful of bigrams.
+     */
+    static String syntheticModel() {
+        Random random = new Random(7);
+        StringBuilder sb = new StringBuilder("dim 262144\nbias 0.0 0.2 0.0\n");
+        for (String word : WORDS) {
+            sb.append("f ").append(word).append(weights(random)).append('\n');
+        }
+        for (int i = 0; i < 200; i++) {
+            sb.append("f ").append(WORDS[random.nextInt(WORDS.length)]).append(' ')
+                    .append(WORDS[random.nextInt(WORDS.length)]).append(weights(random)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String weights(Random random) {
+        return String.format(" %.3f %.3f %.3f", random.nextGaussian(), random.nextGaussian(), random.nextGaussian());
+    }
+}
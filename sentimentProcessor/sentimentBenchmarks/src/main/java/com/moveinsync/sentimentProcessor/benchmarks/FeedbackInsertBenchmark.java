@@ -0,0 +1,148 @@
+package com.moveinsync.sentimentProcessor.benchmarks;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import com.moveinsync.sentimentProcessor.entity.DriverFeedback;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import jakarta.persistence.PersistenceConfiguration;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts per second for feedback rows written three ways: Hibernate with
+ * IDENTITY ids (the old mapping), Hibernate with pooled-lo sequence ids and
+ * JDBC batching (the current DriverFeedback mapping), and COPY FROM STDIN with
+ * ids reserved in sequence blocks (as FeedbackCopyWriter does). Each
+ * invocation writes {@link #ROWS} rows in one transaction, as a consumer
+ * batch does.
+ *
+ * Needs a scratch Postgres database; its tables are dropped and recreated:
+ * <pre>
+ * java -jar target/benchmarks.jar FeedbackInsertBenchmark \
+ *     -jvmArgs "-Dbench.jdbc.url=jdbc:postgresql://localhost:5431/bench -Dbench.jdbc.user=postgres -Dbench.jdbc.password=password"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FeedbackInsertBenchmark {
+
+    private static final int ROWS = 500;
+    // allocationSize of DriverFeedback, so the sequence hands out blocks of this size
+    private static final int ID_BLOCK = 50;
+    private static final String COPY_SQL =
+            "COPY driver_feedback (id, driver_id, rating, comment, sentiment_label, created_at) FROM STDIN";
+
+    @Param({ "identity", "sequence", "copy" })
+    public String ids;
+
+    private EntityManagerFactory emf;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PersistenceConfiguration config = new PersistenceConfiguration("feedback-insert-benchmark")
+                .managedClass(DriverFeedback.class)
+                .managedClass(IdentityDriverFeedback.class)
+                .property(PersistenceConfiguration.JDBC_URL,
+                        System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5431/bench"))
+                .property(PersistenceConfiguration.JDBC_USER, System.getProperty("bench.jdbc.user", "postgres"))
+                .property(PersistenceConfiguration.JDBC_PASSWORD, System.getProperty("bench.jdbc.password", "password"))
+                .property(PersistenceConfiguration.SCHEMAGEN_DATABASE_ACTION, "drop-and-create")
+                // Same settings as the processor's application.properties
+                .property("hibernate.id.optimizer.pooled.preferred", "pooled-lo")
+                .property("hibernate.jdbc.batch_size", "50")
+                .property("hibernate.order_inserts", "true");
+        emf = Persistence.createEntityManagerFactory(config);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void persistBatch() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            LocalDateTime now = LocalDateTime.now();
+            if (ids.equals("copy")) {
+                em.unwrap(Session.class).doWork(con -> copy(con, now));
+                em.getTransaction().commit();
+                return;
+            }
+            for (int i = 0; i < ROWS; i++) {
+                String driverId = "D" + (next++ & 1023);
+                if (ids.equals("identity")) {
+                    em.persist(new IdentityDriverFeedback(driverId, 4, "on time", SentimentLabel.POSITIVE, now));
+                } else {
+                    em.persist(new DriverFeedback(driverId, 4, "on time", SentimentLabel.POSITIVE, now));
+                }
+            }
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    private void copy(Connection con, LocalDateTime now) throws SQLException {
+        long[] ids = new long[ROWS];
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT nextval('driver_feedback_id_seq') FROM generate_series(1, ?)")) {
+            ps.setInt(1, (ROWS + ID_BLOCK - 1) / ID_BLOCK);
+            try (ResultSet rs = ps.executeQuery()) {
+                for (int i = 0; i < ROWS && rs.next(); ) {
+                    long start = rs.getLong(1);
+                    for (int j = 0; j < ID_BLOCK && i < ROWS; j++) {
+                        ids[i++] = start + j;
+                    }
+                }
+            }
+        }
+
+        StringBuilder rows = new StringBuilder(ROWS * 64);
+        for (int i = 0; i < ROWS; i++) {
+            rows.append(ids[i]).append('\t').append("D").append(next++ & 1023).append("\t4\ton time\t")
+                    .append(SentimentLabel.POSITIVE.name()).append('\t').append(now).append('\n');
+        }
+        byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+        CopyIn copy = con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        try {
+            copy.writeToCopy(bytes, 0, bytes.length);
+            copy.endCopy();
+        } finally {
+            if (copy.isActive())
+                copy.cancelCopy();
+        }
+    }
+}
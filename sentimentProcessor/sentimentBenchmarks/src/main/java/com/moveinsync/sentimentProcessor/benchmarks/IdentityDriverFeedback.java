@@ -0,0 +1,44 @@
+package com.moveinsync.sentimentProcessor.benchmarks;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * DriverFeedback as it was mapped before sequence ids: IDENTITY generation,
+ * which makes Hibernate send one INSERT per persist to read the id back.
+ */
+@Entity
+@Table(name = "bench_identity_feedback")
+public class IdentityDriverFeedback {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "driver_id", nullable = false)
+    private String driverId;
+
+    @Column(nullable = false)
+    private int rating;
+
+    private String comment;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sentiment_label", nullable = false)
+    private SentimentLabel sentimentLabel;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public IdentityDriverFeedback() {
+    }
+
+    public IdentityDriverFeedback(String driverId, int rating, String comment, SentimentLabel sentimentLabel,
+            LocalDateTime createdAt) {
+        this.driverId = driverId;
+        this.rating = rating;
+        this.comment = comment;
+        this.sentimentLabel = sentimentLabel;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,78 @@
+package com.moveinsync.sentimentProcessor.benchmarks;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentAnalyzer;
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import com.moveinsync.sentimentProcessor.service.AhoCorasickSentimentAnalyzer;
+import com.moveinsync.sentimentProcessor.service.CachingSentimentAnalyzer;
+import com.moveinsync.sentimentProcessor.service.LinearModelSentimentAnalyzer;
+import com.moveinsync.sentimentProcessor.service.RuleBasedSentimentAnalyzer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a single analyze() call for each SentimentAnalyzer
+ * implementation across comment corpora. Run through {@link BenchmarkRunner}
+ * to get the GC profiler (allocation per op) and JSON results.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SentimentAnalyzerBenchmark {
+
+    private static final int CORPUS_SIZE = 4096;
+
+    @Param({ "rule", "keyword", "keyword-cached", "model" })
+    public String analyzer;
+
+    @Param({ "short", "long", "nonascii", "repeated" })
+    public String corpus;
+
+    private SentimentAnalyzer target;
+    private String[] comments;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        target = switch (analyzer) {
+            case "rule" -> new RuleBasedSentimentAnalyzer();
+            case "keyword" -> keywordAnalyzer();
+            case "keyword-cached" -> new CachingSentimentAnalyzer(keywordAnalyzer(), 100_000, 64,
+                    new SimpleMeterRegistry());
+            case "model" -> new LinearModelSentimentAnalyzer(new ByteArrayResource(
+                    CommentCorpus.syntheticModel().getBytes(StandardCharsets.UTF_8)));
+            default -> throw new IllegalArgumentException("Unknown analyzer " + analyzer);
+        };
+        comments = CommentCorpus.generate(corpus, CORPUS_SIZE);
+    }
+
+    @Benchmark
+    public SentimentLabel analyze() {
+        String comment = comments[next];
+        next = (next + 1) & (CORPUS_SIZE - 1);
+        return target.analyze(comment);
+    }
+
+    private static SentimentAnalyzer keywordAnalyzer() {
+        return new AhoCorasickSentimentAnalyzer(new ClassPathResource("sentiment-lexicon.csv"), event -> {
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.moveinsync.sentimentProcessor.analyzer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork-join support for {@link SentimentAnalyzer#analyzeAll}.
+ */
+final class BatchAnalysis {
+
+    static final int DEFAULT_PARALLEL_THRESHOLD = 256;
+
+    private BatchAnalysis() {
+    }
+
+    static List<SentimentLabel> run(SentimentAnalyzer analyzer, List<String> texts, int parallelThreshold) {
+        List<String> source = texts instanceof RandomAccess ? texts : Arrays.asList(texts.toArray(String[]::new));
+        SentimentLabel[] labels = new SentimentLabel[source.size()];
+        int threshold = Math.max(1, parallelThreshold);
+
+        if (labels.length < threshold) {
+            classify(analyzer, source, labels, 0, labels.length);
+        } else {
+            ForkJoinPool.commonPool().invoke(new Task(analyzer, source, labels, 0, labels.length, threshold));
+        }
+        return Arrays.asList(labels);
+    }
+
+    private static void classify(SentimentAnalyzer analyzer, List<String> texts, SentimentLabel[] labels,
+            int from, int to) {
+        for (int i = from; i < to; i++) {
+            labels[i] = analyzer.analyze(texts.get(i));
+        }
+    }
+
+    private static final class Task extends RecursiveAction {
+        private final SentimentAnalyzer analyzer;
+        private final List<String> texts;
+        private final SentimentLabel[] labels;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        Task(SentimentAnalyzer analyzer, List<String> texts, SentimentLabel[] labels, int from, int to,
+                int threshold) {
+            this.analyzer = analyzer;
+            this.texts = texts;
+            this.labels = labels;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                classify(analyzer, texts, labels, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Task(analyzer, texts, labels, from, mid, threshold),
+                    new Task(analyzer, texts, labels, mid, to, threshold));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.moveinsync.sentimentProcessor.analyzer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Function;
+
+/**
+ * Immutable linear sentiment model over hashed unigram and bigram features
+ * (the scoring form shared by logistic regression and naive Bayes).
+ *
+ * Model files are plain text, one directive per line:
+ * <pre>
+ * dim 262144                      # number of hash buckets, power of two
+ * bias 0.1 0.4 -0.2               # POSITIVE NEUTRAL NEGATIVE
+ * f good 1.3 -0.2 -1.1            # unigram feature
+ * f not good -1.4 0.1 1.2         # bigram feature (two tokens)
+ * </pre>
+ * Features are hashed at load time with the same function used at scoring
+ * time, so trainers only need to emit tokens. Tokens are runs of letters or
+ * digits, case-folded per character.
+ */
+public final class HashedLinearModel {
+
+    private static final SentimentLabel[] LABELS = SentimentLabel.values();
+    private static final int CLASSES = LABELS.length;
+    private static final int FNV_OFFSET = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    private final int mask;
+    private final float[] weights;
+    private final float[] bias;
+
+    private HashedLinearModel(int dim, float[] weights, float[] bias) {
+        this.mask = dim - 1;
+        this.weights = weights;
+        this.bias = bias;
+    }
+
+    public static HashedLinearModel parse(Reader source) throws IOException {
+        BufferedReader reader = new BufferedReader(source);
+        int dim = 0;
+        float[] weights = null;
+        float[] bias = new float[CLASSES];
+
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            int hashPos = line.indexOf('#');
+            if (hashPos >= 0)
+                line = line.substring(0, hashPos);
+            line = line.trim();
+            if (line.isEmpty())
+                continue;
+
+            String[] parts = line.split("\\s+");
+            switch (parts[0]) {
+                case "dim" -> {
+                    if (parts.length != 2)
+                        throw new IllegalArgumentException("Line " + lineNo + ": expected dim <size>");
+                    dim = parseNumber(parts[1], Integer::parseInt, lineNo);
+                    if (dim <= 0 || Integer.bitCount(dim) != 1)
+                        throw new IllegalArgumentException("Line " + lineNo + ": dim must be a power of two");
+                    weights = new float[dim * CLASSES];
+                }
+                case "bias" -> readWeights(parts, 1, bias, lineNo);
+                case "f" -> {
+                    if (weights == null)
+                        throw new IllegalArgumentException("Line " + lineNo + ": dim must precede features");
+                    int tokens = parts.length - 1 - CLASSES;
+                    int hash;
+                    if (tokens == 1) {
+                        hash = tokenHash(parts[1]);
+                    } else if (tokens == 2) {
+                        hash = bigramHash(tokenHash(parts[1]), tokenHash(parts[2]));
+                    } else {
+                        throw new IllegalArgumentException("Line " + lineNo + ": expected one or two tokens");
+                    }
+                    float[] w = new float[CLASSES];
+                    readWeights(parts, 1 + tokens, w, lineNo);
+                    int base = (hash & (dim - 1)) * CLASSES;
+                    for (int c = 0; c < CLASSES; c++) {
+                        weights[base + c] += w[c];
+                    }
+                }
+                default -> throw new IllegalArgumentException("Line " + lineNo + ": unknown directive " + parts[0]);
+            }
+        }
+
+        if (weights == null)
+            throw new IllegalArgumentException("Model has no dim directive");
+        return new HashedLinearModel(dim, weights, bias);
+    }
+
+    /**
+     * Scores the text in one pass; tokens are hashed as they are read, so no
+     * substrings or token arrays are allocated.
+     */
+    public SentimentLabel classify(CharSequence text) {
+        float s0 = bias[0];
+        float s1 = bias[1];
+        float s2 = bias[2];
+
+        int hash = FNV_OFFSET;
+        int prev = 0;
+        boolean inToken = false;
+        boolean hasPrev = false;
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                hash = (hash ^ Character.toLowerCase(c)) * FNV_PRIME;
+                inToken = true;
+                continue;
+            }
+            if (!inToken)
+                continue;
+
+            int base = (hash & mask) * CLASSES;
+            s0 += weights[base];
+            s1 += weights[base + 1];
+            s2 += weights[base + 2];
+            if (hasPrev) {
+                base = (bigramHash(prev, hash) & mask) * CLASSES;
+                s0 += weights[base];
+                s1 += weights[base + 1];
+                s2 += weights[base + 2];
+            }
+            prev = hash;
+            hasPrev = true;
+            hash = FNV_OFFSET;
+            inToken = false;
+        }
+
+        if (s0 > s1 && s0 > s2)
+            return LABELS[0];
+        if (s2 > s1 && s2 >= s0)
+            return LABELS[2];
+        return LABELS[1];
+    }
+
+    static int tokenHash(String token) {
+        int hash = FNV_OFFSET;
+        for (int i = 0; i < token.length(); i++) {
+            hash = (hash ^ Character.toLowerCase(token.charAt(i))) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    static int bigramHash(int first, int second) {
+        int h = first * 0x9E3779B1 ^ second;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    private static void readWeights(String[] parts, int from, float[] target, int lineNo) {
+        if (parts.length - from != CLASSES)
+            throw new IllegalArgumentException("Line " + lineNo + ": expected " + CLASSES + " weights");
+        for (int c = 0; c < CLASSES; c++) {
+            target[c] = parseNumber(parts[from + c], Float::parseFloat, lineNo);
+        }
+    }
+
+    private static <T> T parseNumber(String text, Function<String, T> parser, int lineNo) {
+        try {
+            return parser.apply(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Line " + lineNo + ": not a number: " + text);
+        }
+    }
+}
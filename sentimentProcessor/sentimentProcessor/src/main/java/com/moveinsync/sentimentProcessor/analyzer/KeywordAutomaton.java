@@ -0,0 +1,130 @@
+package com.moveinsync.sentimentProcessor.analyzer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable Aho-Corasick automaton over ASCII keywords. Each keyword carries
+ * a bit-set tag; {@link #scan} returns the OR of the tags of every keyword that
+ * occurs in the text, in a single pass and without allocating.
+ *
+ * Matching is case-insensitive: characters are folded with
+ * {@link Character#toLowerCase(char)} while scanning.
+ */
+public final class KeywordAutomaton {
+
+    private static final int ALPHABET = 128;
+    private static final char DOTTED_CAPITAL_I = '\u0130';
+
+    private final int[] transitions;
+    private final long[] tags;
+
+    private KeywordAutomaton(int[] transitions, long[] tags) {
+        this.transitions = transitions;
+        this.tags = tags;
+    }
+
+    /**
+     * Builds an automaton from keyword to tag. Keywords are lowercased and
+     * must be ASCII.
+     */
+    public static KeywordAutomaton compile(Map<String, Long> keywords) {
+        List<int[]> gotoTable = new ArrayList<>();
+        List<Long> stateTags = new ArrayList<>();
+        gotoTable.add(newRow());
+        stateTags.add(0L);
+
+        for (Map.Entry<String, Long> entry : keywords.entrySet()) {
+            String keyword = entry.getKey().toLowerCase();
+            if (keyword.isEmpty())
+                throw new IllegalArgumentException("Empty keyword");
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                if (c >= ALPHABET)
+                    throw new IllegalArgumentException("Non-ASCII keyword: " + keyword);
+                int next = gotoTable.get(state)[c];
+                if (next < 0) {
+                    next = gotoTable.size();
+                    gotoTable.get(state)[c] = next;
+                    gotoTable.add(newRow());
+                    stateTags.add(0L);
+                }
+                state = next;
+            }
+            stateTags.set(state, stateTags.get(state) | entry.getValue());
+        }
+
+        // Breadth-first pass turns the trie into a full DFA: missing edges
+        // follow the failure link, and tags are inherited along it
+        int size = gotoTable.size();
+        int[] transitions = new int[size * ALPHABET];
+        long[] tags = new long[size];
+        int[] fail = new int[size];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+
+        tags[0] = stateTags.get(0);
+        for (int c = 0; c < ALPHABET; c++) {
+            int next = gotoTable.get(0)[c];
+            if (next < 0) {
+                transitions[c] = 0;
+            } else {
+                transitions[c] = next;
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            tags[state] = stateTags.get(state) | tags[fail[state]];
+            for (int c = 0; c < ALPHABET; c++) {
+                int next = gotoTable.get(state)[c];
+                if (next < 0) {
+                    transitions[state * ALPHABET + c] = transitions[fail[state] * ALPHABET + c];
+                } else {
+                    transitions[state * ALPHABET + c] = next;
+                    fail[next] = transitions[fail[state] * ALPHABET + c];
+                    queue.add(next);
+                }
+            }
+        }
+        return new KeywordAutomaton(transitions, tags);
+    }
+
+    /**
+     * Returns the OR of the tags of all keywords found in the text. Stops early
+     * once every bit in {@code stopMask} has been seen.
+     */
+    public long scan(CharSequence text, long stopMask) {
+        int state = 0;
+        long found = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c >= ALPHABET) {
+                // String.toLowerCase expands U+0130 to 'i' + U+0307, which
+                // never continues an ASCII keyword
+                c = c == DOTTED_CAPITAL_I ? 0 : Character.toLowerCase(c);
+                if (c >= ALPHABET) {
+                    state = 0;
+                    continue;
+                }
+            } else if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            state = transitions[state * ALPHABET + c];
+            found |= tags[state];
+            if ((found & stopMask) == stopMask && stopMask != 0)
+                return found;
+        }
+        return found;
+    }
+
+    private static int[] newRow() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
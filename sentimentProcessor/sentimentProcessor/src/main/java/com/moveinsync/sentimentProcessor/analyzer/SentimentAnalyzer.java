@@ -1,5 +1,25 @@
 package com.moveinsync.sentimentProcessor.analyzer;
 
+import java.util.List;
+
 public interface SentimentAnalyzer {
     SentimentLabel analyze(String text);
+
+    /**
+     * Classifies a batch, returning labels in input order. Batches of at
+     * least {@link BatchAnalysis#DEFAULT_PARALLEL_THRESHOLD} comments are
+     * split across the common fork-join pool.
+     */
+    default List<SentimentLabel> analyzeAll(List<String> texts) {
+        return analyzeAll(texts, BatchAnalysis.DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Classifies a batch, returning labels in input order. Batches smaller than
+     * {@code parallelThreshold} stay on the calling thread; larger ones are
+     * split into chunks of at most that size across the common fork-join pool.
+     */
+    default List<SentimentLabel> analyzeAll(List<String> texts, int parallelThreshold) {
+        return BatchAnalysis.run(this, texts, parallelThreshold);
+    }
 }
@@ -0,0 +1,8 @@
+package com.moveinsync.sentimentProcessor.analyzer;
+
+/**
+ * Published when an analyzer starts classifying with new rules (e.g. a
+ * reloaded lexicon), so labels cached from the old ones can be dropped.
+ */
+public record SentimentAnalyzerReloadedEvent(SentimentAnalyzer analyzer) {
+}
@@ -0,0 +1,125 @@
+package com.moveinsync.sentimentProcessor.analyzer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, compiled sentiment lexicon. Terms are read from CSV lines of the
+ * form {@code term,POSITIVE|NEGATIVE,weight}; blank lines and lines starting
+ * with {@code #} are ignored.
+ *
+ * A comment gets the polarity of its strongest matching term, with ties going
+ * to NEGATIVE, so a lexicon where every weight is equal reproduces the
+ * "any negative keyword wins" rule. Terms sharing a (polarity, weight) pair
+ * share a tag bit in the automaton, which allows up to 64 distinct pairs.
+ */
+public final class SentimentLexicon {
+
+    private static final int MAX_WEIGHT_CLASSES = Long.SIZE;
+
+    private final KeywordAutomaton automaton;
+    private final SentimentLabel[] classPolarity;
+    private final double[] classWeight;
+    private final long stopMask;
+    private final int size;
+
+    private SentimentLexicon(KeywordAutomaton automaton, SentimentLabel[] classPolarity, double[] classWeight,
+            long stopMask, int size) {
+        this.automaton = automaton;
+        this.classPolarity = classPolarity;
+        this.classWeight = classWeight;
+        this.stopMask = stopMask;
+        this.size = size;
+    }
+
+    public static SentimentLexicon parse(Reader source) throws IOException {
+        Map<String, Long> terms = new LinkedHashMap<>();
+        Map<String, Integer> classes = new HashMap<>();
+        List<SentimentLabel> polarities = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+
+            String[] parts = line.split(",");
+            if (parts.length != 3)
+                throw new IllegalArgumentException("Line " + lineNo + ": expected term,polarity,weight");
+
+            String term = parts[0].trim().toLowerCase();
+            SentimentLabel polarity = SentimentLabel.valueOf(parts[1].trim().toUpperCase());
+            double weight = Double.parseDouble(parts[2].trim());
+            if (polarity == SentimentLabel.NEUTRAL)
+                throw new IllegalArgumentException("Line " + lineNo + ": polarity must be POSITIVE or NEGATIVE");
+            if (!(weight > 0))
+                throw new IllegalArgumentException("Line " + lineNo + ": weight must be positive");
+
+            Integer cls = classes.get(polarity + ":" + weight);
+            if (cls == null) {
+                cls = polarities.size();
+                if (cls == MAX_WEIGHT_CLASSES)
+                    throw new IllegalArgumentException("More than " + MAX_WEIGHT_CLASSES
+                            + " distinct (polarity, weight) pairs");
+                classes.put(polarity + ":" + weight, cls);
+                polarities.add(polarity);
+                weights.add(weight);
+            }
+            terms.merge(term, 1L << cls, (a, b) -> a | b);
+        }
+
+        SentimentLabel[] classPolarity = polarities.toArray(SentimentLabel[]::new);
+        double[] classWeight = weights.stream().mapToDouble(Double::doubleValue).toArray();
+
+        // Once the heaviest negative class is seen nothing can outrank it
+        long stopMask = 0;
+        double maxWeight = 0;
+        for (double w : classWeight) {
+            maxWeight = Math.max(maxWeight, w);
+        }
+        for (int i = 0; i < classWeight.length; i++) {
+            if (classPolarity[i] == SentimentLabel.NEGATIVE && classWeight[i] == maxWeight) {
+                stopMask = 1L << i;
+                break;
+            }
+        }
+
+        return new SentimentLexicon(KeywordAutomaton.compile(terms), classPolarity, classWeight, stopMask,
+                terms.size());
+    }
+
+    public SentimentLabel classify(CharSequence text) {
+        long found = automaton.scan(text, stopMask);
+        double positive = 0;
+        double negative = 0;
+        while (found != 0) {
+            int cls = Long.numberOfTrailingZeros(found);
+            found &= found - 1;
+            if (classPolarity[cls] == SentimentLabel.NEGATIVE) {
+                negative = Math.max(negative, classWeight[cls]);
+            } else {
+                positive = Math.max(positive, classWeight[cls]);
+            }
+        }
+
+        if (negative > 0 && negative >= positive)
+            return SentimentLabel.NEGATIVE;
+        if (positive > 0)
+            return SentimentLabel.POSITIVE;
+        return SentimentLabel.NEUTRAL;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,29 @@
+package com.moveinsync.sentimentProcessor.config;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentAnalyzer;
+import com.moveinsync.sentimentProcessor.service.CachingSentimentAnalyzer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class AnalyzerConfig {
+
+    /**
+     * Wraps the active analyzer (selected by sentiment.analyzer) in a result
+     * cache. The bean being created is never its own injection candidate, so
+     * {@code delegate} resolves to the underlying analyzer.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "sentiment.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public SentimentAnalyzer cachingSentimentAnalyzer(SentimentAnalyzer delegate,
+            @Value("${sentiment.cache.max-entries:100000}") long maxEntries,
+            @Value("${sentiment.cache.max-comment-length:64}") int maxCommentLength,
+            MeterRegistry meterRegistry) {
+        return new CachingSentimentAnalyzer(delegate, maxEntries, maxCommentLength, meterRegistry);
+    }
+}
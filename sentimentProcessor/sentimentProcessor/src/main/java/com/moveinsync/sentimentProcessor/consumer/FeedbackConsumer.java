@@ -5,13 +5,20 @@ import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
 import com.moveinsync.sentimentProcessor.entity.*;
 import com.moveinsync.sentimentProcessor.event.FeedbackEvent;
 import com.moveinsync.sentimentProcessor.repository.*;
+import com.moveinsync.sentimentProcessor.service.EntityMetricsDelta;
+import com.moveinsync.sentimentProcessor.service.MetricsAccumulator;
+import com.moveinsync.sentimentProcessor.service.RedisMetricsWriter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -19,15 +26,31 @@ import java.util.Map;
 public class FeedbackConsumer {
 
     private final SentimentAnalyzer analyzer;
-    private final StringRedisTemplate redisTemplate;
+    private final RedisMetricsWriter metricsWriter;
+    private final MetricsAccumulator metricsAccumulator;
     private final SimpMessagingTemplate messagingTemplate;
 
     private final DriverFeedbackRepository driverFeedbackRepository;
     private final TripFeedbackRepository tripFeedbackRepository;
     private final MarshalFeedbackRepository marshalFeedbackRepository;
     private final AppFeedbackRepository appFeedbackRepository;
+    private final FeedbackBatchRepository feedbackBatchRepository;
+    private final FeedbackCopyWriter feedbackCopyWriter;
 
-    @KafkaListener(topics = "feedback-events", groupId = "sentiment-group")
+    @Value("${metrics.accumulator.enabled:true}")
+    private boolean accumulatorEnabled;
+
+    @Value("${sentiment.batch.parallel-threshold:256}")
+    private int parallelThreshold;
+
+    @Value("${feedback.consumer.writer:copy}")
+    private String writer;
+
+    /**
+     * Per-record listener. Only started when feedback.consumer.mode=record.
+     */
+    @KafkaListener(id = "feedbackRecordListener", topics = "feedback-events", groupId = "sentiment-group",
+            autoStartup = "#{'${feedback.consumer.mode:batch}' == 'record'}")
     public void consume(FeedbackEvent event) {
         System.out.println("Processing " + event.getEntityType() + " feedback for entity: " + event.getEntityId());
 
@@ -50,6 +73,67 @@ public class FeedbackConsumer {
         }
     }
 
+    /**
+     * Batch listener (default). Receives the whole poll result, writes each
+     * feedback table with one COPY (or one JDBC batch with
+     * feedback.consumer.writer=jdbc) and folds the Redis updates so every
+     * touched entity is incremented once per batch.
+     */
+    @KafkaListener(id = "feedbackBatchListener", topics = "feedback-events", groupId = "sentiment-group",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "#{'${feedback.consumer.mode:batch}' == 'batch'}")
+    public void consumeBatch(List<FeedbackEvent> events) {
+        if (events == null || events.isEmpty())
+            return;
+        System.out.println("Processing batch of " + events.size() + " feedback events");
+
+        // 1. Classify sentiment for the whole batch, in parallel for large polls
+        List<String> comments = events.stream().map(FeedbackEvent::getComment).toList();
+        SentimentLabel[] sentiments = analyzer.analyzeAll(comments, parallelThreshold)
+                .toArray(SentimentLabel[]::new);
+
+        // 2. Persist to PostgreSQL, falling back to per-record so one bad row
+        // does not drop the rest of the batch
+        BitSet rejected = new BitSet();
+        try {
+            if (writer.equals("copy")) {
+                // Isolates bad rows itself; those are left out of the metrics
+                rejected = feedbackCopyWriter.copyAll(events, sentiments);
+            } else {
+                feedbackBatchRepository.insertAll(events, sentiments);
+            }
+        } catch (Exception e) {
+            System.err.println("Batch insert failed, retrying per record: " + e.getMessage());
+            events.forEach(this::consume);
+            return;
+        }
+        if (!rejected.isEmpty()) {
+            List<FeedbackEvent> written = new ArrayList<>(events.size());
+            List<SentimentLabel> writtenSentiments = new ArrayList<>(events.size());
+            for (int i = rejected.nextClearBit(0); i < events.size(); i = rejected.nextClearBit(i + 1)) {
+                written.add(events.get(i));
+                writtenSentiments.add(sentiments[i]);
+            }
+            events = written;
+            sentiments = writtenSentiments.toArray(SentimentLabel[]::new);
+        }
+
+        try {
+            // 3. Update Redis metrics
+            updateRedisMetrics(events, sentiments);
+
+            // 4. Broadcast one update per touched entity
+            Map<String, FeedbackEvent> touched = new LinkedHashMap<>();
+            for (FeedbackEvent event : events) {
+                touched.putIfAbsent(event.getEntityType() + ":" + event.getEntityId(), event);
+            }
+            touched.values().forEach(this::broadcastUpdate);
+        } catch (Exception e) {
+            System.err.println("Error processing feedback batch: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     private void persistRawFeedback(FeedbackEvent event, SentimentLabel sentiment) {
         String type = event.getEntityType().toUpperCase();
         switch (type) {
@@ -93,32 +177,31 @@ public class FeedbackConsumer {
     }
 
     private void updateRedisMetrics(FeedbackEvent event, SentimentLabel sentiment) {
-        String type = event.getEntityType().toUpperCase();
-        String id = event.getEntityId();
-        int rating = event.getRating();
-        String sentLabel = sentiment.name().toLowerCase();
-        String sentKey = sentLabel + "_count";
-
-        String metricsKey = type.toLowerCase() + ":metrics:" + id;
-        redisTemplate.opsForHash().increment(metricsKey, "total_rating_sum", rating);
-        redisTemplate.opsForHash().increment(metricsKey, "feedback_count", 1);
-        redisTemplate.opsForHash().increment(metricsKey, sentKey, 1);
-
-        if (event.getEntityType().equals("DRIVER")) {
-            redisTemplate.opsForSet().add("driver:active", event.getEntityId());
-            redisTemplate.opsForSet().add("driver:dirty", event.getEntityId());
-        } else if (event.getEntityType().equals("TRIP")) {
-            redisTemplate.opsForSet().add("trip:active", event.getEntityId());
-            redisTemplate.opsForSet().add("trip:dirty", event.getEntityId());
-        } else if (event.getEntityType().equals("MARSHAL")) {
-            redisTemplate.opsForSet().add("marshal:active", event.getEntityId());
-            redisTemplate.opsForSet().add("marshal:dirty", event.getEntityId());
+        if (accumulatorEnabled) {
+            metricsAccumulator.add(event.getEntityType(), event.getEntityId(), event.getRating(), sentiment);
+            return;
         }
+        EntityMetricsDelta delta = new EntityMetricsDelta(event.getEntityType(), event.getEntityId());
+        delta.add(event.getRating(), sentiment);
+        metricsWriter.apply(delta);
+    }
 
-        // Global counters
-        redisTemplate.opsForValue().increment("analytics:total_feedbacks", 1);
-        redisTemplate.opsForValue().increment("analytics:system_rating_sum", rating);
-        redisTemplate.opsForValue().increment("analytics:" + sentLabel + "_total", 1);
+    private void updateRedisMetrics(List<FeedbackEvent> events, SentimentLabel[] sentiments) {
+        if (accumulatorEnabled) {
+            for (int i = 0; i < events.size(); i++) {
+                FeedbackEvent event = events.get(i);
+                metricsAccumulator.add(event.getEntityType(), event.getEntityId(), event.getRating(), sentiments[i]);
+            }
+            return;
+        }
+        Map<String, EntityMetricsDelta> deltas = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            FeedbackEvent event = events.get(i);
+            deltas.computeIfAbsent(event.getEntityType().toLowerCase() + ":" + event.getEntityId(),
+                    k -> new EntityMetricsDelta(event.getEntityType(), event.getEntityId()))
+                    .add(event.getRating(), sentiments[i]);
+        }
+        metricsWriter.applyAll(deltas.values());
     }
 
     private void broadcastUpdate(FeedbackEvent event) {
@@ -129,4 +212,4 @@ public class FeedbackConsumer {
         updatePayload.put("timestamp", System.currentTimeMillis());
         messagingTemplate.convertAndSend((String) "/topic/updates", (Object) updatePayload);
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,32 @@
 package com.moveinsync.sentimentProcessor.controller;
 
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
 import com.moveinsync.sentimentProcessor.entity.*;
 import com.moveinsync.sentimentProcessor.repository.*;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequiredArgsConstructor
-@CrossOrigin("*")
+@CrossOrigin(origins = "*", exposedHeaders = AdminController.NEXT_CURSOR_HEADER)
 @RequestMapping("/api/feedback/admin")
 public class AdminController {
 
@@ -22,64 +37,166 @@ public class AdminController {
     private final DriverSentimentRepository snapshotRepo;
     private final TripSentimentRepository tripSnapshotRepo;
     private final MarshalSentimentRepository marshalSnapshotRepo;
+    private final AppSentimentRepository appSnapshotRepo;
+    private final FeedbackExportRepository exportRepo;
+    private final JsonMapper jsonMapper;
 
+    private static final String NDJSON = "application/x-ndjson";
+
+    // Cursor of the next feedback page; absent on the last page
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    @Value("${feedback.query.default-window-days:90}")
+    private int defaultWindowDays;
+
+    @Value("${feedback.query.max-page-size:500}")
+    private int maxPageSize;
+
+    // Exports can run for minutes; only they get this async timeout, every
+    // other async request keeps the default one
+    @Value("${feedback.export.timeout-ms:3600000}")
+    private long exportTimeoutMs;
+
+    // Feedback tables are partitioned by created_at, so every feedback query
+    // is bounded by it; without "from" the last feedback.query.default-window-days
+    // days are returned, newest first, one keyset page at a time. The body is
+    // the page itself; pass the X-Next-Cursor header back as "cursor"
     @GetMapping("/feedbacks/{type}")
-    public ResponseEntity<?> getFeedbacks(@PathVariable String type) {
+    public ResponseEntity<?> getFeedbacks(@PathVariable String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<SentimentLabel> label,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        LocalDateTime since = windowStart(from);
+        ScrollPosition position;
+        try {
+            position = FeedbackCursor.position(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid cursor");
+        }
+        int pageSize = Math.clamp(limit, 1, maxPageSize);
+
         switch (type.toUpperCase()) {
             case "DRIVER":
-                return ResponseEntity.ok(driverRepo.findAll());
+                return page(driverRepo.findBy(
+                        FeedbackFilters.matching(since, to, label),
+                        q -> q.sortBy(FeedbackFilters.NEWEST_FIRST).limit(pageSize).scroll(position)));
             case "TRIP":
-                return ResponseEntity.ok(tripRepo.findAll());
+                return page(tripRepo.findBy(
+                        FeedbackFilters.matching(since, to, label),
+                        q -> q.sortBy(FeedbackFilters.NEWEST_FIRST).limit(pageSize).scroll(position)));
             case "MARSHAL":
-                return ResponseEntity.ok(marshalRepo.findAll());
+                return page(marshalRepo.findBy(
+                        FeedbackFilters.matching(since, to, label),
+                        q -> q.sortBy(FeedbackFilters.NEWEST_FIRST).limit(pageSize).scroll(position)));
             case "APP":
-                return ResponseEntity.ok(appRepo.findAll());
+                return page(appRepo.findBy(
+                        FeedbackFilters.matching(since, to, label),
+                        q -> q.sortBy(FeedbackFilters.NEWEST_FIRST).limit(pageSize).scroll(position)));
             default:
                 return ResponseEntity.badRequest().body("Invalid type");
         }
     }
 
+    /**
+     * Same filters as {@link #getFeedbacks}, but every matching row is
+     * written as one JSON object per line while it is read from the database
+     * cursor, so exports of any size run in constant memory. There is no
+     * default window: without "from" the whole history is exported. The rows go
+     * straight to the servlet response from an async task that times out
+     * after feedback.export.timeout-ms.
+     */
+    @GetMapping(value = "/feedbacks/{type}/stream", produces = NDJSON)
+    public WebAsyncTask<Void> streamFeedbacks(@PathVariable String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<SentimentLabel> label,
+            HttpServletResponse response) throws IOException {
+        FeedbackTable table;
+        try {
+            table = FeedbackTable.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid type");
+            return null;
+        }
+        return new WebAsyncTask<>(exportTimeoutMs, () -> {
+            response.setContentType(NDJSON);
+            try (JsonGenerator json = ndjsonWriter().createGenerator(response.getOutputStream())) {
+                exportRepo.stream(table, from, to, label, (feedbackId, row) -> {
+                    json.writeStartObject();
+                    json.writeNumberProperty("id", feedbackId);
+                    json.writeStringProperty(table.getIdProperty(), row.entityId());
+                    json.writeNumberProperty("rating", row.rating());
+                    json.writeStringProperty("comment", row.comment());
+                    json.writeStringProperty("sentimentLabel", row.sentimentLabel().name());
+                    // Same date format as the JSON listings
+                    json.writePOJOProperty("createdAt", row.createdAt());
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                });
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Entity snapshot plus the newest page of its feedback, at most "limit"
+     * rows. Feedback is paged through the entity's whole history, the same
+     * history the snapshot counts cover. Pass the returned nextCursor back as "cursor" for the next page;
+     * it is null on the last page.
+     */
     @GetMapping("/details/{type}/{id}")
-    public ResponseEntity<?> getEntityDetails(@PathVariable String type, @PathVariable String id) {
+    public ResponseEntity<?> getEntityDetails(@PathVariable String type, @PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
         String upperType = type.toUpperCase();
+        ScrollPosition position;
+        try {
+            position = FeedbackCursor.position(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid cursor");
+        }
+        Limit pageSize = Limit.of(Math.clamp(limit, 1, maxPageSize));
+
         switch (upperType) {
             case "DRIVER":
-                List<DriverFeedback> feedbacks = driverRepo.findByDriverId(id);
+                Window<DriverFeedback> feedbacks = driverRepo
+                        .findByDriverIdOrderByCreatedAtDescIdDesc(id, position, pageSize);
                 DriverSentiment snapshot = snapshotRepo.findById(id).orElse(null);
-                double avg = snapshot != null ? snapshot.getAverageRating() : 0.0;
-                return ResponseEntity.ok(Map.of(
+                return ResponseEntity.ok(withPage(Map.of(
                         "id", id,
                         "type", upperType,
-                        "feedbacks", feedbacks,
-                        "overallRating", avg,
+                        "overallRating", snapshot != null ? snapshot.getAverageRating() : 0.0,
                         "positiveCount", snapshot != null ? snapshot.getPositiveCount() : 0,
                         "neutralCount", snapshot != null ? snapshot.getNeutralCount() : 0,
-                        "negativeCount", snapshot != null ? snapshot.getNegativeCount() : 0));
+                        "negativeCount", snapshot != null ? snapshot.getNegativeCount() : 0), feedbacks));
             case "TRIP":
-                List<TripFeedback> tripFeedbacks = tripRepo.findByTripId(id);
+                Window<TripFeedback> tripFeedbacks = tripRepo
+                        .findByTripIdOrderByCreatedAtDescIdDesc(id, position, pageSize);
                 TripSentiment tripSnapshot = tripSnapshotRepo.findById(id).orElse(null);
-                return ResponseEntity.ok(Map.of(
+                return ResponseEntity.ok(withPage(Map.of(
                         "id", id,
                         "type", upperType,
-                        "feedbacks", tripFeedbacks,
                         "overallRating", tripSnapshot != null ? tripSnapshot.getAverageRating() : 0.0,
                         "positiveCount", tripSnapshot != null ? tripSnapshot.getPositiveCount() : 0,
                         "neutralCount", tripSnapshot != null ? tripSnapshot.getNeutralCount() : 0,
-                        "negativeCount", tripSnapshot != null ? tripSnapshot.getNegativeCount() : 0));
+                        "negativeCount", tripSnapshot != null ? tripSnapshot.getNegativeCount() : 0), tripFeedbacks));
             case "MARSHAL":
-                List<MarshalFeedback> marshalFeedbacks = marshalRepo.findByMarshalId(id);
+                Window<MarshalFeedback> marshalFeedbacks = marshalRepo
+                        .findByMarshalIdOrderByCreatedAtDescIdDesc(id, position, pageSize);
                 MarshalSentiment marshalSnapshot = marshalSnapshotRepo.findById(id).orElse(null);
-                return ResponseEntity.ok(Map.of(
+                return ResponseEntity.ok(withPage(Map.of(
                         "id", id,
                         "type", upperType,
-                        "feedbacks", marshalFeedbacks,
                         "overallRating", marshalSnapshot != null ? marshalSnapshot.getAverageRating() : 0.0,
                         "positiveCount", marshalSnapshot != null ? marshalSnapshot.getPositiveCount() : 0,
                         "neutralCount", marshalSnapshot != null ? marshalSnapshot.getNeutralCount() : 0,
-                        "negativeCount", marshalSnapshot != null ? marshalSnapshot.getNegativeCount() : 0));
+                        "negativeCount", marshalSnapshot != null ? marshalSnapshot.getNegativeCount() : 0),
+                        marshalFeedbacks));
             case "APP":
-                return ResponseEntity.ok(Map.of(
-                        "id", id, "type", upperType, "feedbacks", appRepo.findByUserId(id)));
+                return ResponseEntity.ok(withPage(Map.of("id", id, "type", upperType),
+                        appRepo.findByUserIdOrderByCreatedAtDescIdDesc(id, position, pageSize)));
             default:
                 return ResponseEntity.badRequest().body("Invalid type");
         }
@@ -94,12 +211,12 @@ public class AdminController {
                         .map(s -> Map.of("id", s.getDriverId(), "average", s.getAverageRating()))
                         .toList());
             case "APP":
-                // Compute average from actual AppFeedback records
-                List<AppFeedback> allAppFeedbacks = appRepo.findAll();
-                double appAvg = allAppFeedbacks.stream()
-                        .mapToInt(AppFeedback::getRating).average().orElse(0.0);
-                return ResponseEntity
-                        .ok(List.of(Map.of("id", "System", "average", appAvg, "count", allAppFeedbacks.size())));
+                // App-wide aggregate kept by the flush, see AppSentiment
+                AppSentiment app = appSnapshotRepo.findById(AppSentiment.APP_ID).orElse(null);
+                return ResponseEntity.ok(List.of(Map.of(
+                        "id", "System",
+                        "average", app != null ? app.getAverageRating() : 0.0,
+                        "count", app != null ? app.getFeedbackCount() : 0)));
             case "TRIP":
                 return ResponseEntity.ok(tripSnapshotRepo.findAll().stream()
                         .map(s -> Map.of("id", s.getTripId(), "average", s.getAverageRating()))
@@ -112,4 +229,31 @@ public class AdminController {
                 return ResponseEntity.ok(List.of());
         }
     }
+
+    // The application's mapper, with lines separated by the rows themselves;
+    // leaves the response stream open for the servlet container to close
+    private ObjectWriter ndjsonWriter() {
+        return jsonMapper.writer()
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator((String) null);
+    }
+
+    private LocalDateTime windowStart(LocalDateTime from) {
+        return from != null ? from : LocalDateTime.now().minusDays(defaultWindowDays);
+    }
+
+    private static ResponseEntity<List<?>> page(Window<?> feedbacks) {
+        String next = FeedbackCursor.next(feedbacks);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (next != null)
+            response.header(NEXT_CURSOR_HEADER, next);
+        return response.body(feedbacks.getContent());
+    }
+
+    private static Map<String, Object> withPage(Map<String, Object> body, Window<?> feedbacks) {
+        Map<String, Object> response = new LinkedHashMap<>(body);
+        response.put("feedbacks", feedbacks.getContent());
+        response.put("nextCursor", FeedbackCursor.next(feedbacks));
+        return response;
+    }
 }
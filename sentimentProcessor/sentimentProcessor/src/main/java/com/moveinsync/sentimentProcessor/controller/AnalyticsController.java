@@ -3,14 +3,20 @@ package com.moveinsync.sentimentProcessor.controller;
 import com.moveinsync.sentimentProcessor.repository.DriverSentimentRepository;
 import com.moveinsync.sentimentProcessor.repository.TripSentimentRepository;
 import com.moveinsync.sentimentProcessor.repository.MarshalSentimentRepository;
+import com.moveinsync.sentimentProcessor.repository.SnapshotTable;
+import com.moveinsync.sentimentProcessor.service.LeaderboardService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -23,14 +29,19 @@ public class AnalyticsController {
     private final DriverSentimentRepository driverSentimentRepo;
     private final TripSentimentRepository tripSentimentRepo;
     private final MarshalSentimentRepository marshalSentimentRepo;
+    private final LeaderboardService leaderboards;
+    private final SnapshotResponseCache responseCache;
+
+    @Value("${leaderboard.max-k:100}")
+    private int maxK;
 
     /**
-     * Returns DB-backed driver sentiment summaries (updated every 30s by
-     * FlushService).
+     * Returns DB-backed driver sentiment summaries (updated by FlushService),
+     * cached until the next driver flush.
      */
     @GetMapping("/drivers")
-    public List<Map<String, Object>> getDriverSentiment() {
-        return driverSentimentRepo.findAll().stream()
+    public ResponseEntity<byte[]> getDriverSentiment(WebRequest request) {
+        return responseCache.respond(SnapshotTable.DRIVER, request, () -> driverSentimentRepo.findAll().stream()
                 .map(d -> Map.<String, Object>of(
                         "driverId", d.getDriverId(),
                         "averageScore", d.getAverageRating(),
@@ -38,16 +49,16 @@ public class AnalyticsController {
                         "positiveCount", d.getPositiveCount(),
                         "neutralCount", d.getNeutralCount(),
                         "negativeCount", d.getNegativeCount()))
-                .toList();
+                .toList());
     }
 
     /**
-     * Returns DB-backed trip sentiment summaries (updated every 30s by
-     * FlushService).
+     * Returns DB-backed trip sentiment summaries (updated by FlushService),
+     * cached until the next trip flush.
      */
     @GetMapping("/trips")
-    public List<Map<String, Object>> getTripSentiment() {
-        return tripSentimentRepo.findAll().stream()
+    public ResponseEntity<byte[]> getTripSentiment(WebRequest request) {
+        return responseCache.respond(SnapshotTable.TRIP, request, () -> tripSentimentRepo.findAll().stream()
                 .map(t -> Map.<String, Object>of(
                         "tripId", t.getTripId(),
                         "averageScore", t.getAverageRating(),
@@ -55,16 +66,16 @@ public class AnalyticsController {
                         "positiveCount", t.getPositiveCount(),
                         "neutralCount", t.getNeutralCount(),
                         "negativeCount", t.getNegativeCount()))
-                .toList();
+                .toList());
     }
 
     /**
-     * Returns DB-backed marshal sentiment summaries (updated every 30s by
-     * FlushService).
+     * Returns DB-backed marshal sentiment summaries (updated by FlushService),
+     * cached until the next marshal flush.
      */
     @GetMapping("/marshals")
-    public List<Map<String, Object>> getMarshalSentiment() {
-        return marshalSentimentRepo.findAll().stream()
+    public ResponseEntity<byte[]> getMarshalSentiment(WebRequest request) {
+        return responseCache.respond(SnapshotTable.MARSHAL, request, () -> marshalSentimentRepo.findAll().stream()
                 .map(m -> Map.<String, Object>of(
                         "marshalId", m.getMarshalId(),
                         "averageScore", m.getAverageRating(),
@@ -72,7 +83,33 @@ public class AnalyticsController {
                         "positiveCount", m.getPositiveCount(),
                         "neutralCount", m.getNeutralCount(),
                         "negativeCount", m.getNegativeCount()))
-                .toList();
+                .toList());
+    }
+
+    /**
+     * The k drivers, trips or marshals with the highest ("top") or lowest
+     * ("bottom") average rating or negative feedback share, among those with
+     * at least minFeedback feedbacks. Served from the Redis leaderboards
+     * kept by FlushService.
+     */
+    @GetMapping("/leaderboard/{type}/{end}")
+    public ResponseEntity<?> getLeaderboard(@PathVariable String type, @PathVariable String end,
+            @RequestParam(defaultValue = "average") String metric,
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(defaultValue = "1") int minFeedback) {
+        SnapshotTable table;
+        LeaderboardService.Metric rankedBy;
+        try {
+            table = SnapshotTable.valueOf(type.toUpperCase());
+            rankedBy = LeaderboardService.Metric.valueOf(metric.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid type or metric");
+        }
+        if (!LeaderboardService.isRanked(table) || !(end.equals("top") || end.equals("bottom")))
+            return ResponseEntity.badRequest().body("Invalid type or end");
+
+        return ResponseEntity.ok(leaderboards.rank(table, rankedBy, end.equals("top"), Math.clamp(k, 1, maxK),
+                minFeedback));
     }
 
     /**
@@ -0,0 +1,52 @@
+package com.moveinsync.sentimentProcessor.controller;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque keyset cursor over feedback ordered by (createdAt DESC, id DESC):
+ * the URL-safe Base64 of {@code <createdAt>|<id>} of the last row served.
+ */
+final class FeedbackCursor {
+
+    private FeedbackCursor() {
+    }
+
+    /**
+     * Cursor after the last row of the window, or null if it is the last page.
+     */
+    static String next(Window<?> window) {
+        if (window.isEmpty() || !window.hasNext())
+            return null;
+        Map<String, ?> keys = ((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys();
+        String raw = keys.get("createdAt") + "|" + keys.get("id");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Scroll position for a cursor; the first page when the cursor is null.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    static ScrollPosition position(String cursor) {
+        if (cursor == null || cursor.isEmpty())
+            return ScrollPosition.keyset();
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("createdAt", LocalDateTime.parse(raw.substring(0, sep)));
+            keys.put("id", Long.parseLong(raw.substring(sep + 1)));
+            return ScrollPosition.forward(keys);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
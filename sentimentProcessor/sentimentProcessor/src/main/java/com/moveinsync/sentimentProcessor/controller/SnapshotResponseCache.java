@@ -0,0 +1,86 @@
+package com.moveinsync.sentimentProcessor.controller;
+
+import com.moveinsync.sentimentProcessor.repository.SnapshotTable;
+import com.moveinsync.sentimentProcessor.service.FlushGenerations;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serialized JSON of the snapshot listings, one entry per snapshot type,
+ * valid until the next flush of that type bumps its {@link FlushGenerations}
+ * counter. A hit costs one Redis GET: no query and no serialization. The
+ * generation is also the ETag, so clients that send it back in
+ * If-None-Match get a 304 without a body. Bodies are written with the
+ * application's JSON mapper, the one the rest of the API responds with.
+ */
+@Component
+@RequiredArgsConstructor
+class SnapshotResponseCache {
+
+    private final FlushGenerations generations;
+    private final JsonMapper jsonMapper;
+    private final Map<SnapshotTable, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<SnapshotTable, ReentrantLock> loadLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Response for a listing of {@code table}, built by {@code loader} only
+     * when the cached one is from an older flush; null if the client's copy
+     * is current (the 304 is already set on the response).
+     */
+    ResponseEntity<byte[]> respond(SnapshotTable table, WebRequest request, Supplier<?> loader) {
+        long generation;
+        try {
+            generation = generations.current(table);
+        } catch (Exception e) {
+            // Without the counter nothing can be validated; serve fresh data
+            System.err.println("Failed to read " + table.name().toLowerCase() + " flush generation: "
+                    + e.getMessage());
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(serialize(loader.get()));
+        }
+        if (request.checkNotModified(etag(table, generation)))
+            return null;
+
+        Entry entry = entries.get(table);
+        if (entry == null || entry.generation() < generation) {
+            // One load per type at a time; requests arriving meanwhile wait
+            // for it and reuse it instead of querying too
+            ReentrantLock lock = loadLocks.computeIfAbsent(table, t -> new ReentrantLock());
+            lock.lock();
+            try {
+                entry = entries.get(table);
+                if (entry == null || entry.generation() < generation) {
+                    // Data read after the generation is at least that new
+                    entry = new Entry(generation, serialize(loader.get()));
+                    entries.put(table, entry);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag(table, entry.generation()))
+                .body(entry.body());
+    }
+
+    // Weak: instances may serialize the same generation with rows in another order
+    private static String etag(SnapshotTable table, long generation) {
+        return "W/\"" + table.name().toLowerCase() + "-" + generation + "\"";
+    }
+
+    private byte[] serialize(Object value) {
+        return jsonMapper.writeValueAsBytes(value);
+    }
+
+    private record Entry(long generation, byte[] body) {
+    }
+}
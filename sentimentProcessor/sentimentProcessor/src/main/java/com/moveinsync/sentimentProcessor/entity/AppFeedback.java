@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 @Table(name = "app_feedback")
 public class AppFeedback {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_feedback_id")
+    @SequenceGenerator(name = "app_feedback_id", sequenceName = "app_feedback_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
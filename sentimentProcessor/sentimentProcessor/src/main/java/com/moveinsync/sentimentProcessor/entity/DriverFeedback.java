@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 @Table(name = "driver_feedback")
 public class DriverFeedback {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "driver_feedback_id")
+    @SequenceGenerator(name = "driver_feedback_id", sequenceName = "driver_feedback_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "driver_id", nullable = false)
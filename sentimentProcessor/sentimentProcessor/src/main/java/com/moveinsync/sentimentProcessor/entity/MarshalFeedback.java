@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 @Table(name = "marshal_feedback")
 public class MarshalFeedback {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "marshal_feedback_id")
+    @SequenceGenerator(name = "marshal_feedback_id", sequenceName = "marshal_feedback_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "marshal_id", nullable = false)
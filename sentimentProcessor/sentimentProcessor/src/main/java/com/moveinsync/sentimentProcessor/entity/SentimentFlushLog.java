@@ -0,0 +1,41 @@
+package com.moveinsync.sentimentProcessor.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Ids of delta batches already added to the snapshot tables, so a batch
+ * replayed after a crash is applied exactly once.
+ */
+@Entity
+@Table(name = "sentiment_flush_log")
+public class SentimentFlushLog {
+    @Id
+    @Column(name = "batch_id")
+    private String batchId;
+
+    @Column(name = "applied_at", nullable = false)
+    private LocalDateTime appliedAt;
+
+    public SentimentFlushLog() {
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public LocalDateTime getAppliedAt() {
+        return appliedAt;
+    }
+
+    public void setAppliedAt(LocalDateTime appliedAt) {
+        this.appliedAt = appliedAt;
+    }
+}
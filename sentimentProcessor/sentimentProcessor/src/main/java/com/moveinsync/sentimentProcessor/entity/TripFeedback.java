@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 @Table(name = "trip_feedback")
 public class TripFeedback {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trip_feedback_id")
+    @SequenceGenerator(name = "trip_feedback_id", sequenceName = "trip_feedback_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "trip_id", nullable = false)
@@ -1,11 +1,20 @@
 package com.moveinsync.sentimentProcessor.repository;
 
 import com.moveinsync.sentimentProcessor.entity.AppFeedback;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
-import java.util.List;
 
 @Repository
-public interface AppFeedbackRepository extends JpaRepository<AppFeedback, Long> {
-    List<AppFeedback> findByUserId(String userId);
+public interface AppFeedbackRepository extends JpaRepository<AppFeedback, Long>,
+        JpaSpecificationExecutor<AppFeedback> {
+    /**
+     * Newest-first keyset page of an entity's full feedback history, served
+     * by the (user_id, created_at DESC, id DESC) index of each partition.
+     */
+    Window<AppFeedback> findByUserIdOrderByCreatedAtDescIdDesc(String userId, ScrollPosition position,
+            Limit limit);
 }
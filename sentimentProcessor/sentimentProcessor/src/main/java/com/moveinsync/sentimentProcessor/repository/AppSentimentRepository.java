@@ -0,0 +1,10 @@
+package com.moveinsync.sentimentProcessor.repository;
+
+import com.moveinsync.sentimentProcessor.entity.AppSentiment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AppSentimentRepository
+        extends JpaRepository<AppSentiment, String> {
+}
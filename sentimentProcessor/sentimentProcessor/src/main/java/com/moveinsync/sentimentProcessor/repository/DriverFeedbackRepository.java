@@ -1,11 +1,20 @@
 package com.moveinsync.sentimentProcessor.repository;
 
 import com.moveinsync.sentimentProcessor.entity.DriverFeedback;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
-import java.util.List;
 
 @Repository
-public interface DriverFeedbackRepository extends JpaRepository<DriverFeedback, Long> {
-    List<DriverFeedback> findByDriverId(String driverId);
+public interface DriverFeedbackRepository extends JpaRepository<DriverFeedback, Long>,
+        JpaSpecificationExecutor<DriverFeedback> {
+    /**
+     * Newest-first keyset page of an entity's full feedback history, served
+     * by the (driver_id, created_at DESC, id DESC) index of each partition.
+     */
+    Window<DriverFeedback> findByDriverIdOrderByCreatedAtDescIdDesc(String driverId, ScrollPosition position,
+            Limit limit);
 }
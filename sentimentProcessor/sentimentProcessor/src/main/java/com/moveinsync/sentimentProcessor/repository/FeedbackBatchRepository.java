@@ -0,0 +1,81 @@
+package com.moveinsync.sentimentProcessor.repository;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import com.moveinsync.sentimentProcessor.event.FeedbackEvent;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes raw feedback rows for a whole consumer batch, one JDBC batch per
+ * feedback table, inside a single transaction. Ids come from
+ * {@link FeedbackIdAllocator}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FeedbackBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO %s (id, %s, rating, comment, sentiment_label, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FeedbackIdAllocator idAllocator;
+
+    @Transactional
+    public void insertAll(List<FeedbackEvent> events, SentimentLabel[] labels) {
+        List<Integer> drivers = new ArrayList<>();
+        List<Integer> trips = new ArrayList<>();
+        List<Integer> marshals = new ArrayList<>();
+        List<Integer> apps = new ArrayList<>();
+
+        for (int i = 0; i < events.size(); i++) {
+            switch (events.get(i).getEntityType().toUpperCase()) {
+                case "DRIVER" -> drivers.add(i);
+                case "TRIP" -> trips.add(i);
+                case "MARSHAL" -> marshals.add(i);
+                case "APP" -> apps.add(i);
+                default -> {
+                }
+            }
+        }
+
+        insert(FeedbackTable.DRIVER, events, labels, drivers);
+        insert(FeedbackTable.TRIP, events, labels, trips);
+        insert(FeedbackTable.MARSHAL, events, labels, marshals);
+        insert(FeedbackTable.APP, events, labels, apps);
+    }
+
+    private void insert(FeedbackTable table, List<FeedbackEvent> events, SentimentLabel[] labels,
+            List<Integer> rows) {
+        if (rows.isEmpty())
+            return;
+
+        long[] ids = idAllocator.allocate(table, rows.size());
+        String sql = String.format(INSERT_SQL, table.getTableName(), table.getIdColumn());
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                int row = rows.get(i);
+                FeedbackEvent event = events.get(row);
+                ps.setLong(1, ids[i]);
+                ps.setString(2, event.getEntityId());
+                ps.setInt(3, event.getRating());
+                ps.setString(4, event.getComment());
+                ps.setString(5, labels[row].name());
+                ps.setTimestamp(6, Timestamp.valueOf(event.getCreatedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+}
@@ -0,0 +1,209 @@
+package com.moveinsync.sentimentProcessor.repository;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import com.moveinsync.sentimentProcessor.event.FeedbackEvent;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk writer for the raw feedback tables using {@code COPY ... FROM STDIN}
+ * in text format over a connection of the application datasource (joining
+ * the current transaction, if any). Used by the batch consumer and usable by
+ * replay or backfill jobs.
+ *
+ * Rows are sent in COPY statements of at most feedback.copy.max-rows rows,
+ * streamed through a buffer of feedback.copy.buffer-bytes. COPY is all or
+ * nothing, so when one fails its rows are inserted one by one, each behind a
+ * savepoint, and only the rows Postgres rejects are skipped.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FeedbackCopyWriter {
+
+    private static final String COLUMNS = "(id, %s, rating, comment, sentiment_label, created_at)";
+    private static final String COPY_SQL = "COPY %s " + COLUMNS + " FROM STDIN";
+    private static final String INSERT_SQL = "INSERT INTO %s " + COLUMNS + " VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final DataSource dataSource;
+    private final FeedbackIdAllocator idAllocator;
+
+    @Value("${feedback.copy.max-rows:5000}")
+    private int maxRows;
+
+    @Value("${feedback.copy.buffer-bytes:65536}")
+    private int bufferBytes;
+
+    /**
+     * Writes a consumer batch, routing each event to its feedback table, in
+     * one transaction: if any table fails nothing is committed, so the
+     * consumer's per-record retry cannot duplicate rows. Returns the indexes
+     * of events that were not written: rejected rows and events of an
+     * unknown entity type.
+     */
+    @Transactional
+    public BitSet copyAll(List<FeedbackEvent> events, SentimentLabel[] labels) {
+        Map<FeedbackTable, List<Integer>> byTable = new EnumMap<>(FeedbackTable.class);
+        BitSet rejected = new BitSet();
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                FeedbackTable table = FeedbackTable.valueOf(events.get(i).getEntityType().toUpperCase());
+                byTable.computeIfAbsent(table, t -> new ArrayList<>()).add(i);
+            } catch (IllegalArgumentException e) {
+                rejected.set(i);
+            }
+        }
+
+        byTable.forEach((table, indexes) -> {
+            List<FeedbackRow> rows = new ArrayList<>(indexes.size());
+            for (int i : indexes) {
+                rows.add(FeedbackRow.of(events.get(i), labels[i]));
+            }
+            copy(table, rows).stream().forEach(r -> rejected.set(indexes.get(r)));
+        });
+        return rejected;
+    }
+
+    /**
+     * Writes rows into one feedback table. Returns the indexes of the rows
+     * Postgres rejected.
+     */
+    public BitSet copy(FeedbackTable table, List<FeedbackRow> rows) {
+        BitSet rejected = new BitSet();
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try {
+            for (int from = 0; from < rows.size(); from += maxRows) {
+                List<FeedbackRow> chunk = rows.subList(from, Math.min(rows.size(), from + maxRows));
+                long[] ids = idAllocator.allocate(table, chunk.size());
+                if (!tryCopy(con, table, chunk, ids))
+                    insertEach(con, table, chunk, ids, rejected, from);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Failed to write " + table.getTableName() + " rows", e);
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+        return rejected;
+    }
+
+    private boolean tryCopy(Connection con, FeedbackTable table, List<FeedbackRow> rows, long[] ids)
+            throws SQLException {
+        Savepoint savepoint = con.getAutoCommit() ? null : con.setSavepoint();
+        CopyIn copy = con.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn(String.format(COPY_SQL, table.getTableName(), table.getIdColumn()));
+        try {
+            byte[] buffer = new byte[bufferBytes];
+            int length = 0;
+            StringBuilder line = new StringBuilder(128);
+            for (int i = 0; i < rows.size(); i++) {
+                line.setLength(0);
+                appendRow(line, ids[i], rows.get(i));
+                byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                if (length + bytes.length > buffer.length) {
+                    copy.writeToCopy(buffer, 0, length);
+                    length = 0;
+                }
+                if (bytes.length > buffer.length) {
+                    copy.writeToCopy(bytes, 0, bytes.length);
+                } else {
+                    System.arraycopy(bytes, 0, buffer, length, bytes.length);
+                    length += bytes.length;
+                }
+            }
+            if (length > 0)
+                copy.writeToCopy(buffer, 0, length);
+            copy.endCopy();
+            if (savepoint != null)
+                con.releaseSavepoint(savepoint);
+            return true;
+        } catch (SQLException e) {
+            if (copy.isActive())
+                copy.cancelCopy();
+            if (savepoint != null)
+                con.rollback(savepoint);
+            System.err.println("COPY into " + table.getTableName() + " failed, inserting " + rows.size()
+                    + " rows one by one: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void insertEach(Connection con, FeedbackTable table, List<FeedbackRow> rows, long[] ids,
+            BitSet rejected, int offset) throws SQLException {
+        boolean inTransaction = !con.getAutoCommit();
+        try (PreparedStatement ps = con.prepareStatement(
+                String.format(INSERT_SQL, table.getTableName(), table.getIdColumn()))) {
+            for (int i = 0; i < rows.size(); i++) {
+                FeedbackRow row = rows.get(i);
+                Savepoint savepoint = inTransaction ? con.setSavepoint() : null;
+                try {
+                    ps.setLong(1, ids[i]);
+                    ps.setString(2, row.entityId());
+                    ps.setInt(3, row.rating());
+                    ps.setString(4, row.comment());
+                    ps.setString(5, row.sentimentLabel() == null ? null : row.sentimentLabel().name());
+                    ps.setTimestamp(6, row.createdAt() == null ? null : Timestamp.valueOf(row.createdAt()));
+                    ps.executeUpdate();
+                    if (savepoint != null)
+                        con.releaseSavepoint(savepoint);
+                } catch (SQLException e) {
+                    if (savepoint != null)
+                        con.rollback(savepoint);
+                    rejected.set(offset + i);
+                    System.err.println("Rejected " + table.getTableName() + " row for " + row.entityId() + ": "
+                            + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends one row in COPY text format: tab-separated, {@code \N} for
+     * null, with backslash, tab, newline and carriage return escaped.
+     */
+    static void appendRow(StringBuilder line, long id, FeedbackRow row) {
+        line.append(id).append('\t');
+        appendText(line, row.entityId());
+        line.append('\t').append(row.rating()).append('\t');
+        appendText(line, row.comment());
+        line.append('\t');
+        appendText(line, row.sentimentLabel() == null ? null : row.sentimentLabel().name());
+        line.append('\t');
+        appendText(line, row.createdAt() == null ? null : row.createdAt().toString());
+        line.append('\n');
+    }
+
+    private static void appendText(StringBuilder line, String value) {
+        if (value == null) {
+            line.append("\\N");
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case '\t' -> line.append("\\t");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                default -> line.append(c);
+            }
+        }
+    }
+}
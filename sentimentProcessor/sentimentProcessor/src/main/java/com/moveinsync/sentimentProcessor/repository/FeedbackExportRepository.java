@@ -0,0 +1,81 @@
+package com.moveinsync.sentimentProcessor.repository;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Streams raw feedback straight from a server-side cursor: inside a
+ * transaction PgJDBC fetches feedback.export.fetch-size rows per round trip
+ * instead of the whole result, so memory use does not depend on how many
+ * rows match.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FeedbackExportRepository {
+
+    private static final String SELECT_SQL = "SELECT id, %s, rating, comment, sentiment_label, created_at FROM %s"
+            + " WHERE TRUE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${feedback.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Calls {@code handler} for every row created in [from, to) with one of
+     * the given labels, newest first; a null {@code from} or {@code to}, or
+     * an empty label set, leaves that side unfiltered.
+     */
+    @Transactional(readOnly = true)
+    public void stream(FeedbackTable table, LocalDateTime from, LocalDateTime to, Collection<SentimentLabel> labels,
+            FeedbackHandler handler) {
+        StringBuilder sql = new StringBuilder(String.format(SELECT_SQL, table.getIdColumn(), table.getTableName()));
+        List<Object> args = new ArrayList<>(3);
+        if (from != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND created_at < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        if (labels != null && !labels.isEmpty()) {
+            sql.append(" AND sentiment_label = ANY (?)");
+            args.add(labels.stream().map(Enum::name).toArray(String[]::new));
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC");
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                if (args.get(i) instanceof String[] values)
+                    ps.setArray(i + 1, con.createArrayOf("varchar", values));
+                else
+                    ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        }, rs -> {
+            handler.handle(rs.getLong(1), new FeedbackRow(rs.getString(2), rs.getInt(3), rs.getString(4),
+                    SentimentLabel.valueOf(rs.getString(5)), rs.getTimestamp(6).toLocalDateTime()));
+        });
+    }
+
+    @FunctionalInterface
+    public interface FeedbackHandler {
+        void handle(long id, FeedbackRow row);
+    }
+}
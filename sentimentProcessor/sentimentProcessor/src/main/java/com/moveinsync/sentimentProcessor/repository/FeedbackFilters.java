@@ -0,0 +1,46 @@
+package com.moveinsync.sentimentProcessor.repository;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Filters shared by the feedback entities, for keyset pages through
+ * {@code JpaSpecificationExecutor.findBy}.
+ */
+public final class FeedbackFilters {
+
+    /**
+     * Order of feedback listings, served by the (created_at DESC, id DESC)
+     * index.
+     */
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    private FeedbackFilters() {
+    }
+
+    /**
+     * Feedback created in [from, to) with one of the given labels; a null
+     * {@code from} or {@code to}, or an empty label set, leaves that side
+     * unfiltered.
+     */
+    public static <T> Specification<T> matching(LocalDateTime from, LocalDateTime to,
+            Collection<SentimentLabel> labels) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>(3);
+            if (from != null)
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), from));
+            if (to != null)
+                predicates.add(cb.lessThan(root.get("createdAt"), to));
+            if (labels != null && !labels.isEmpty())
+                predicates.add(root.get("sentimentLabel").in(labels));
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
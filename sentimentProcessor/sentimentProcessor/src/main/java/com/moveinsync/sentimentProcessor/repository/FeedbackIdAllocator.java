@@ -0,0 +1,34 @@
+package com.moveinsync.sentimentProcessor.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Reserves feedback ids for raw JDBC writers the way Hibernate's pooled-lo
+ * optimizer does, so they can insert side by side with the entities: each
+ * nextval of {@code <table>_id_seq} returns the first id of a block of
+ * {@link #BLOCK_SIZE}.
+ */
+@Component
+@RequiredArgsConstructor
+public class FeedbackIdAllocator {
+
+    // INCREMENT BY of the <table>_id_seq sequences and allocationSize of the entities
+    static final int BLOCK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long[] allocate(FeedbackTable table, int count) {
+        int blocks = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        List<Long> starts = jdbcTemplate.queryForList("SELECT nextval(?::regclass) FROM generate_series(1, ?)",
+                Long.class, table.getTableName() + "_id_seq", blocks);
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = starts.get(i / BLOCK_SIZE) + i % BLOCK_SIZE;
+        }
+        return ids;
+    }
+}
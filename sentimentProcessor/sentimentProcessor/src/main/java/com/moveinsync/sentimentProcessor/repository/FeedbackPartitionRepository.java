@@ -0,0 +1,87 @@
+package com.moveinsync.sentimentProcessor.repository;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Partition DDL for the range-partitioned feedback tables (see schema.sql).
+ */
+@Repository
+@RequiredArgsConstructor
+public class FeedbackPartitionRepository {
+
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\((.+?)\\) TO \\((.+?)\\)");
+
+    private static final String LIST_SQL = """
+            SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = to_regclass(?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Range partitions of a table; the DEFAULT partition is not included.
+     * {@code from} is null for a MINVALUE bound, {@code to} for MAXVALUE.
+     */
+    public List<Partition> listPartitions(FeedbackTable table) {
+        List<Partition> partitions = new ArrayList<>();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(LIST_SQL, table.getTableName())) {
+            Matcher m = RANGE_BOUND.matcher((String) row.get("bound"));
+            if (m.find())
+                partitions.add(new Partition((String) row.get("name"),
+                        parseBound(m.group(1)), parseBound(m.group(2))));
+        }
+        return partitions;
+    }
+
+    /**
+     * Creates the partition for [from, to) and returns how many rows were
+     * moved into it. Postgres refuses the partition while the DEFAULT
+     * partition holds rows in its range, so DEFAULT is detached, the rows are
+     * moved over and DEFAULT is attached again, all in one transaction.
+     */
+    @Transactional
+    public int createPartition(FeedbackTable table, String name, LocalDateTime from, LocalDateTime to) {
+        String parent = table.getTableName();
+        String defaultPartition = parent + "_default";
+        jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s", parent, defaultPartition));
+        jdbcTemplate.execute(String.format(
+                "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                name, parent, Timestamp.valueOf(from), Timestamp.valueOf(to)));
+        int moved = jdbcTemplate.update(String.format(
+                "WITH moved AS (DELETE FROM %s WHERE created_at >= ? AND created_at < ? RETURNING *)"
+                        + " INSERT INTO %s SELECT * FROM moved", defaultPartition, name),
+                Timestamp.valueOf(from), Timestamp.valueOf(to));
+        jdbcTemplate.execute(String.format("ALTER TABLE %s ATTACH PARTITION %s DEFAULT", parent, defaultPartition));
+        return moved;
+    }
+
+    public void detachPartition(FeedbackTable table, String name) {
+        jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s", table.getTableName(), name));
+    }
+
+    public void dropPartition(String name) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+    }
+
+    private static LocalDateTime parseBound(String bound) {
+        if (bound.equals("MINVALUE") || bound.equals("MAXVALUE"))
+            return null;
+        return Timestamp.valueOf(bound.substring(1, bound.length() - 1)).toLocalDateTime();
+    }
+
+    public record Partition(String name, LocalDateTime from, LocalDateTime to) {
+    }
+}
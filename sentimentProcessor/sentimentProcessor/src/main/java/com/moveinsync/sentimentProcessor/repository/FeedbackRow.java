@@ -0,0 +1,18 @@
+package com.moveinsync.sentimentProcessor.repository;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import com.moveinsync.sentimentProcessor.event.FeedbackEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * One raw feedback row, independent of the entity type it belongs to.
+ */
+public record FeedbackRow(String entityId, int rating, String comment, SentimentLabel sentimentLabel,
+        LocalDateTime createdAt) {
+
+    public static FeedbackRow of(FeedbackEvent event, SentimentLabel sentimentLabel) {
+        return new FeedbackRow(event.getEntityId(), event.getRating(), event.getComment(), sentimentLabel,
+                event.getCreatedAt());
+    }
+}
@@ -0,0 +1,30 @@
+package com.moveinsync.sentimentProcessor.repository;
+
+public enum FeedbackTable {
+    DRIVER("driver_feedback", "driver_id", "driverId"),
+    TRIP("trip_feedback", "trip_id", "tripId"),
+    MARSHAL("marshal_feedback", "marshal_id", "marshalId"),
+    APP("app_feedback", "user_id", "userId");
+
+    private final String tableName;
+    private final String idColumn;
+    private final String idProperty;
+
+    FeedbackTable(String tableName, String idColumn, String idProperty) {
+        this.tableName = tableName;
+        this.idColumn = idColumn;
+        this.idProperty = idProperty;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getIdColumn() {
+        return idColumn;
+    }
+
+    public String getIdProperty() {
+        return idProperty;
+    }
+}
@@ -1,11 +1,20 @@
 package com.moveinsync.sentimentProcessor.repository;
 
 import com.moveinsync.sentimentProcessor.entity.MarshalFeedback;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
-import java.util.List;
 
 @Repository
-public interface MarshalFeedbackRepository extends JpaRepository<MarshalFeedback, Long> {
-    List<MarshalFeedback> findByMarshalId(String marshalId);
+public interface MarshalFeedbackRepository extends JpaRepository<MarshalFeedback, Long>,
+        JpaSpecificationExecutor<MarshalFeedback> {
+    /**
+     * Newest-first keyset page of an entity's full feedback history, served
+     * by the (marshal_id, created_at DESC, id DESC) index of each partition.
+     */
+    Window<MarshalFeedback> findByMarshalIdOrderByCreatedAtDescIdDesc(String marshalId, ScrollPosition position,
+            Limit limit);
 }
@@ -0,0 +1,15 @@
+package com.moveinsync.sentimentProcessor.repository;
+
+/**
+ * One row of a sentiment snapshot table (see {@link SnapshotTable}) as
+ * computed by a flush.
+ */
+public record SentimentSnapshot(
+        String id,
+        double totalRatingSum,
+        int feedbackCount,
+        double averageRating,
+        int positiveCount,
+        int neutralCount,
+        int negativeCount) {
+}
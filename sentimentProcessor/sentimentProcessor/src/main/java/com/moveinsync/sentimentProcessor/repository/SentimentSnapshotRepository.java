@@ -0,0 +1,244 @@
+package com.moveinsync.sentimentProcessor.repository;
+
+import com.moveinsync.sentimentProcessor.entity.AppSentiment;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bulk upserts for the sentiment snapshot tables. A whole chunk is sent as
+ * one INSERT ... SELECT FROM unnest(...) ON CONFLICT statement, so it costs a
+ * single round-trip and a single transaction regardless of its size.
+ *
+ * {@link #upsertAll} overwrites totals but never with lower counts;
+ * {@link #applyDeltas} adds to them. Both are safe with concurrent writers.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SentimentSnapshotRepository {
+
+    // Totals only grow, so a snapshot read before a newer one was written
+    // (e.g. by a slot's previous owner) is skipped instead of overwriting it.
+    // A lower count can also mean Redis lost its totals; FlushService reseeds
+    // Redis from the stored row in that case
+    private static final String UPSERT_SQL = """
+            INSERT INTO %1$s AS s
+            (%2$s, total_rating_sum, feedback_count, average_rating, positive_count, neutral_count, negative_count, updated_at)
+            SELECT id, total_sum, cnt, avg, pos, neu, neg, NOW()
+            FROM unnest(?::text[], ?::float8[], ?::int4[], ?::float8[], ?::int4[], ?::int4[], ?::int4[])
+                AS t(id, total_sum, cnt, avg, pos, neu, neg)
+            ORDER BY id
+            ON CONFLICT (%2$s)
+            DO UPDATE SET
+                total_rating_sum = EXCLUDED.total_rating_sum,
+                feedback_count = EXCLUDED.feedback_count,
+                average_rating = EXCLUDED.average_rating,
+                positive_count = EXCLUDED.positive_count,
+                neutral_count = EXCLUDED.neutral_count,
+                negative_count = EXCLUDED.negative_count,
+                updated_at = NOW()
+            WHERE EXCLUDED.feedback_count >= s.feedback_count
+            RETURNING %2$s, total_rating_sum, feedback_count, average_rating, positive_count, neutral_count, negative_count
+            """;
+
+    // Rows are locked in id order so concurrent batches cannot deadlock
+    private static final String ADD_DELTAS_SQL = """
+            INSERT INTO %1$s AS s
+            (%2$s, total_rating_sum, feedback_count, average_rating, positive_count, neutral_count, negative_count, updated_at)
+            SELECT id, total_sum, cnt, COALESCE(total_sum / NULLIF(cnt, 0), 0), pos, neu, neg, NOW()
+            FROM unnest(?::text[], ?::float8[], ?::int4[], ?::int4[], ?::int4[], ?::int4[])
+                AS t(id, total_sum, cnt, pos, neu, neg)
+            ORDER BY id
+            ON CONFLICT (%2$s)
+            DO UPDATE SET
+                total_rating_sum = s.total_rating_sum + EXCLUDED.total_rating_sum,
+                feedback_count = s.feedback_count + EXCLUDED.feedback_count,
+                average_rating = COALESCE((s.total_rating_sum + EXCLUDED.total_rating_sum)
+                    / NULLIF(s.feedback_count + EXCLUDED.feedback_count, 0), 0),
+                positive_count = s.positive_count + EXCLUDED.positive_count,
+                neutral_count = s.neutral_count + EXCLUDED.neutral_count,
+                negative_count = s.negative_count + EXCLUDED.negative_count,
+                updated_at = NOW()
+            RETURNING %2$s, total_rating_sum, feedback_count, average_rating, positive_count, neutral_count, negative_count
+            """;
+
+    /**
+     * Flush log entry of the one-off app_sentiment seed; kept forever, so the
+     * seed is never applied twice.
+     */
+    public static final String APP_SEED_BATCH = "app-seed";
+
+    private static final String LOG_BATCH_SQL =
+            "INSERT INTO sentiment_flush_log (batch_id, applied_at) VALUES (?, NOW()) ON CONFLICT DO NOTHING";
+
+    private static final String AGGREGATE_APP_SQL = """
+            SELECT ?, COALESCE(SUM(rating), 0), COUNT(*), COALESCE(AVG(rating), 0),
+                COUNT(*) FILTER (WHERE sentiment_label = 'POSITIVE'),
+                COUNT(*) FILTER (WHERE sentiment_label = 'NEUTRAL'),
+                COUNT(*) FILTER (WHERE sentiment_label = 'NEGATIVE')
+            FROM app_feedback
+            """;
+
+    private static final RowMapper<SentimentSnapshot> SNAPSHOT_MAPPER = (rs, rowNum) -> new SentimentSnapshot(
+            rs.getString(1), rs.getDouble(2), rs.getInt(3), rs.getDouble(4), rs.getInt(5), rs.getInt(6), rs.getInt(7));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Upserts all snapshots in one statement and returns the rows written;
+     * snapshots older than the stored row are left out. Ids must be unique
+     * within the call.
+     */
+    public List<SentimentSnapshot> upsertAll(SnapshotTable table, List<SentimentSnapshot> snapshots) {
+        if (snapshots.isEmpty())
+            return List.of();
+
+        int n = snapshots.size();
+        String[] ids = new String[n];
+        Double[] totals = new Double[n];
+        Integer[] counts = new Integer[n];
+        Double[] averages = new Double[n];
+        Integer[] positives = new Integer[n];
+        Integer[] neutrals = new Integer[n];
+        Integer[] negatives = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            SentimentSnapshot s = snapshots.get(i);
+            ids[i] = s.id();
+            totals[i] = s.totalRatingSum();
+            counts[i] = s.feedbackCount();
+            averages[i] = s.averageRating();
+            positives[i] = s.positiveCount();
+            neutrals[i] = s.neutralCount();
+            negatives[i] = s.negativeCount();
+        }
+
+        String sql = String.format(UPSERT_SQL, table.getTableName(), table.getIdColumn());
+        return jdbcTemplate.query(sql, ps -> {
+            Connection con = ps.getConnection();
+            ps.setArray(1, con.createArrayOf("text", ids));
+            ps.setArray(2, con.createArrayOf("float8", totals));
+            ps.setArray(3, con.createArrayOf("int4", counts));
+            ps.setArray(4, con.createArrayOf("float8", averages));
+            ps.setArray(5, con.createArrayOf("int4", positives));
+            ps.setArray(6, con.createArrayOf("int4", neutrals));
+            ps.setArray(7, con.createArrayOf("int4", negatives));
+        }, SNAPSHOT_MAPPER);
+    }
+
+    /**
+     * Adds a batch of deltas to the snapshot totals and recomputes the
+     * averages in SQL. The batch id is recorded in the same transaction, so a
+     * batch replayed after a crash is applied exactly once. Returns the new
+     * totals of the touched rows, or an empty list if the batch had already
+     * been applied. Delta ids must be unique within the call.
+     */
+    @Transactional
+    public List<SentimentSnapshot> applyDeltas(SnapshotTable table, String batchId, List<SentimentSnapshot> deltas) {
+        if (jdbcTemplate.update(LOG_BATCH_SQL, batchId) == 0 || deltas.isEmpty())
+            return List.of();
+
+        int n = deltas.size();
+        String[] ids = new String[n];
+        Double[] totals = new Double[n];
+        Integer[] counts = new Integer[n];
+        Integer[] positives = new Integer[n];
+        Integer[] neutrals = new Integer[n];
+        Integer[] negatives = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            SentimentSnapshot d = deltas.get(i);
+            ids[i] = d.id();
+            totals[i] = d.totalRatingSum();
+            counts[i] = d.feedbackCount();
+            positives[i] = d.positiveCount();
+            neutrals[i] = d.neutralCount();
+            negatives[i] = d.negativeCount();
+        }
+
+        String sql = String.format(ADD_DELTAS_SQL, table.getTableName(), table.getIdColumn());
+        return jdbcTemplate.query(sql, ps -> {
+            Connection con = ps.getConnection();
+            ps.setArray(1, con.createArrayOf("text", ids));
+            ps.setArray(2, con.createArrayOf("float8", totals));
+            ps.setArray(3, con.createArrayOf("int4", counts));
+            ps.setArray(4, con.createArrayOf("int4", positives));
+            ps.setArray(5, con.createArrayOf("int4", neutrals));
+            ps.setArray(6, con.createArrayOf("int4", negatives));
+        }, SNAPSHOT_MAPPER);
+    }
+
+    /**
+     * Stored snapshots of the given ids; ids without a row are left out.
+     */
+    public List<SentimentSnapshot> findAll(SnapshotTable table, Collection<String> ids) {
+        if (ids.isEmpty())
+            return List.of();
+        String sql = String.format(
+                "SELECT %1$s, total_rating_sum, feedback_count, average_rating, positive_count, neutral_count,"
+                        + " negative_count FROM %2$s WHERE %1$s = ANY (?)",
+                table.getIdColumn(), table.getTableName());
+        return jdbcTemplate.query(sql,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("text", ids.toArray())), SNAPSHOT_MAPPER);
+    }
+
+    /**
+     * Reads every row of a snapshot table and hands them over in lists of at
+     * most {@code chunkSize}.
+     */
+    public void forEachChunk(SnapshotTable table, int chunkSize, Consumer<List<SentimentSnapshot>> consumer) {
+        String sql = String.format(
+                "SELECT %s, total_rating_sum, feedback_count, average_rating, positive_count, neutral_count,"
+                        + " negative_count FROM %s",
+                table.getIdColumn(), table.getTableName());
+        List<SentimentSnapshot> chunk = new ArrayList<>(chunkSize);
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            chunk.add(SNAPSHOT_MAPPER.mapRow(rs, 0));
+            if (chunk.size() == chunkSize) {
+                consumer.accept(List.copyOf(chunk));
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty())
+            consumer.accept(List.copyOf(chunk));
+    }
+
+    /**
+     * Totals of all app feedback ever written, as the app_sentiment row;
+     * null if there is none. A full scan, used once to seed that row.
+     */
+    public SentimentSnapshot aggregateAppFeedback() {
+        SentimentSnapshot total = jdbcTemplate.queryForObject(AGGREGATE_APP_SQL, SNAPSHOT_MAPPER, AppSentiment.APP_ID);
+        return total == null || total.feedbackCount() == 0 ? null : total;
+    }
+
+    /**
+     * Removes flush log entries older than the given age. Only batches that
+     * could still be replayed need to be remembered.
+     */
+    public int pruneFlushLog(int maxAgeHours) {
+        return jdbcTemplate.update(
+                "DELETE FROM sentiment_flush_log WHERE applied_at < NOW() - make_interval(hours => ?)"
+                        + " AND batch_id <> ?",
+                maxAgeHours, APP_SEED_BATCH);
+    }
+
+    public boolean isBatchLogged(String batchId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM sentiment_flush_log WHERE batch_id = ?)", Boolean.class, batchId));
+    }
+
+    /**
+     * Records a batch as applied; false if it already was.
+     */
+    public boolean logBatch(String batchId) {
+        return jdbcTemplate.update(LOG_BATCH_SQL, batchId) > 0;
+    }
+}
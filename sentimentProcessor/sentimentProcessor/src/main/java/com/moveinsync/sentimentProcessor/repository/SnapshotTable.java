@@ -0,0 +1,24 @@
+package com.moveinsync.sentimentProcessor.repository;
+
+public enum SnapshotTable {
+    DRIVER("driver_sentiment", "driver_id"),
+    TRIP("trip_sentiment", "trip_id"),
+    MARSHAL("marshal_sentiment", "marshal_id"),
+    APP("app_sentiment", "app_id");
+
+    private final String tableName;
+    private final String idColumn;
+
+    SnapshotTable(String tableName, String idColumn) {
+        this.tableName = tableName;
+        this.idColumn = idColumn;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getIdColumn() {
+        return idColumn;
+    }
+}
@@ -1,11 +1,20 @@
 package com.moveinsync.sentimentProcessor.repository;
 
 import com.moveinsync.sentimentProcessor.entity.TripFeedback;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
-import java.util.List;
 
 @Repository
-public interface TripFeedbackRepository extends JpaRepository<TripFeedback, Long> {
-    List<TripFeedback> findByTripId(String tripId);
+public interface TripFeedbackRepository extends JpaRepository<TripFeedback, Long>,
+        JpaSpecificationExecutor<TripFeedback> {
+    /**
+     * Newest-first keyset page of an entity's full feedback history, served
+     * by the (trip_id, created_at DESC, id DESC) index of each partition.
+     */
+    Window<TripFeedback> findByTripIdOrderByCreatedAtDescIdDesc(String tripId, ScrollPosition position,
+            Limit limit);
 }
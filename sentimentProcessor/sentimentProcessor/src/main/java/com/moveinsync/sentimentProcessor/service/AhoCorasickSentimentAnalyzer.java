@@ -0,0 +1,86 @@
+package com.moveinsync.sentimentProcessor.service;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentAnalyzer;
+import com.moveinsync.sentimentProcessor.analyzer.SentimentAnalyzerReloadedEvent;
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLexicon;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Classifies comments with a {@link SentimentLexicon} compiled into an
+ * Aho-Corasick automaton, so every term is matched in one case-insensitive
+ * pass over the comment.
+ *
+ * The lexicon is loaded from sentiment.lexicon.location. When that resource
+ * is a file it is polled for changes, and a new lexicon is compiled off the
+ * consumer threads and published with a single volatile write; in-flight
+ * analyze calls keep using the lexicon they already read. A
+ * {@link SentimentAnalyzerReloadedEvent} follows every reload.
+ */
+@Service
+@ConditionalOnProperty(name = "sentiment.analyzer", havingValue = "keyword", matchIfMissing = true)
+public class AhoCorasickSentimentAnalyzer implements SentimentAnalyzer {
+
+    private final Resource lexiconResource;
+    private final ApplicationEventPublisher eventPublisher;
+    private volatile SentimentLexicon lexicon;
+    private volatile long lastModified;
+
+    public AhoCorasickSentimentAnalyzer(
+            @Value("${sentiment.lexicon.location:classpath:sentiment-lexicon.csv}") Resource lexiconResource,
+            ApplicationEventPublisher eventPublisher) {
+        this.lexiconResource = lexiconResource;
+        this.eventPublisher = eventPublisher;
+        try {
+            this.lastModified = lexiconResource.isFile() ? lexiconResource.lastModified() : 0L;
+            this.lexicon = load(lexiconResource);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load sentiment lexicon from " + lexiconResource, e);
+        }
+    }
+
+    @Override
+    public SentimentLabel analyze(String text) {
+        if (text == null) {
+            return SentimentLabel.NEUTRAL;
+        }
+        return lexicon.classify(text);
+    }
+
+    @Scheduled(fixedDelayString = "${sentiment.lexicon.reload-interval-ms:10000}")
+    public void reloadIfChanged() {
+        if (!lexiconResource.isFile())
+            return;
+
+        try {
+            long modified = lexiconResource.lastModified();
+            if (modified == lastModified)
+                return;
+            SentimentLexicon updated = load(lexiconResource);
+            lexicon = updated;
+            lastModified = modified;
+            eventPublisher.publishEvent(new SentimentAnalyzerReloadedEvent(this));
+            System.out.println("Reloaded sentiment lexicon (" + updated.size() + " terms) from " + lexiconResource);
+        } catch (Exception e) {
+            // Keep serving the previous lexicon until the file is fixed
+            System.err.println("Failed to reload sentiment lexicon: " + e.getMessage());
+        }
+    }
+
+    private static SentimentLexicon load(Resource resource) throws IOException {
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            return SentimentLexicon.parse(reader);
+        }
+    }
+}
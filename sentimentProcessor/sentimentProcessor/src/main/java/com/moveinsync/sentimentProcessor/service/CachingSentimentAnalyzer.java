@@ -0,0 +1,70 @@
+package com.moveinsync.sentimentProcessor.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moveinsync.sentimentProcessor.analyzer.SentimentAnalyzer;
+import com.moveinsync.sentimentProcessor.analyzer.SentimentAnalyzerReloadedEvent;
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches labels of short, frequently repeated comments ("good", "late again")
+ * in front of another analyzer. Keys are the trimmed, lowercased comment, so
+ * the delegate must ignore case and surrounding whitespace; it is still given
+ * the comment as written. Comments longer than the threshold bypass the cache
+ * entirely.
+ * Hit, miss and eviction counts are published as cache.* meters under
+ * cache=sentiment-analyzer.
+ *
+ * A {@link SentimentAnalyzerReloadedEvent} empties the cache. Entries carry
+ * the reload version they were computed under, so a label computed with the
+ * old rules while the event was handled is not served afterwards.
+ */
+public class CachingSentimentAnalyzer implements SentimentAnalyzer {
+
+    private final SentimentAnalyzer delegate;
+    private final int maxCommentLength;
+    private final Cache<String, Entry> cache;
+    private final AtomicLong version = new AtomicLong();
+
+    public CachingSentimentAnalyzer(SentimentAnalyzer delegate, long maxEntries, int maxCommentLength,
+            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxCommentLength = maxCommentLength;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "sentiment-analyzer");
+    }
+
+    @Override
+    public SentimentLabel analyze(String text) {
+        if (text == null || text.length() > maxCommentLength) {
+            return delegate.analyze(text);
+        }
+        String key = text.trim().toLowerCase(Locale.ROOT);
+        // Read before classifying: a reload publishes its rules before bumping it
+        long current = version.get();
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.version() == current)
+            return entry.label();
+        SentimentLabel label = delegate.analyze(text);
+        cache.put(key, new Entry(current, label));
+        return label;
+    }
+
+    @EventListener
+    public void onReload(SentimentAnalyzerReloadedEvent event) {
+        version.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private record Entry(long version, SentimentLabel label) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.moveinsync.sentimentProcessor.service;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+
+/**
+ * Rating and sentiment increments for one (entityType, entityId) that are
+ * applied to Redis together.
+ */
+public class EntityMetricsDelta {
+    private final String entityType;
+    private final String entityId;
+    private long ratingSum;
+    private long count;
+    private final long[] sentimentCounts = new long[SentimentLabel.values().length];
+
+    public EntityMetricsDelta(String entityType, String entityId) {
+        this.entityType = entityType.toLowerCase();
+        this.entityId = entityId;
+    }
+
+    public void add(int rating, SentimentLabel sentiment) {
+        ratingSum += rating;
+        count++;
+        sentimentCounts[sentiment.ordinal()]++;
+    }
+
+    public void add(long ratingSum, long count, long positive, long neutral, long negative) {
+        this.ratingSum += ratingSum;
+        this.count += count;
+        sentimentCounts[SentimentLabel.POSITIVE.ordinal()] += positive;
+        sentimentCounts[SentimentLabel.NEUTRAL.ordinal()] += neutral;
+        sentimentCounts[SentimentLabel.NEGATIVE.ordinal()] += negative;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSentimentCount(SentimentLabel sentiment) {
+        return sentimentCounts[sentiment.ordinal()];
+    }
+}
@@ -0,0 +1,95 @@
+package com.moveinsync.sentimentProcessor.service;
+
+import com.moveinsync.sentimentProcessor.repository.FeedbackPartitionRepository;
+import com.moveinsync.sentimentProcessor.repository.FeedbackPartitionRepository.Partition;
+import com.moveinsync.sentimentProcessor.repository.FeedbackTable;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps monthly partitions of the feedback tables created
+ * feedback.partition.months-ahead months in advance, and detaches or drops
+ * partitions whose whole range is older than
+ * feedback.partition.retention-months (0 keeps everything). Runs at startup
+ * and then daily; every step is idempotent, so several instances may run it.
+ * Failures are counted in feedback.partition.failures, tagged by table, so a
+ * table left without its monthly partitions can be alerted on.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeedbackPartitionMaintenance {
+
+    private final FeedbackPartitionRepository partitionRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${feedback.partition.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${feedback.partition.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${feedback.partition.retention-mode:detach}")
+    private String retentionMode;
+
+    @PostConstruct
+    @Scheduled(cron = "${feedback.partition.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        LocalDate thisMonth = LocalDate.now().withDayOfMonth(1);
+        for (FeedbackTable table : FeedbackTable.values()) {
+            try {
+                List<Partition> partitions = partitionRepository.listPartitions(table);
+                createAhead(table, partitions, thisMonth);
+                if (retentionMonths > 0)
+                    retire(table, partitions, thisMonth.minusMonths(retentionMonths).atStartOfDay());
+            } catch (Exception e) {
+                meterRegistry.counter("feedback.partition.failures", "table", table.getTableName()).increment();
+                System.err.println("Partition maintenance failed for " + table.getTableName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void createAhead(FeedbackTable table, List<Partition> partitions, LocalDate thisMonth) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDateTime from = thisMonth.plusMonths(i).atStartOfDay();
+            LocalDateTime to = from.plusMonths(1);
+            if (overlapsExisting(partitions, from, to))
+                continue;
+            String name = String.format("%s_p%d_%02d", table.getTableName(), from.getYear(), from.getMonthValue());
+            int moved = partitionRepository.createPartition(table, name, from, to);
+            System.out.println("Created partition " + name
+                    + (moved > 0 ? ", moved " + moved + " rows into it from the default partition" : ""));
+        }
+    }
+
+    private void retire(FeedbackTable table, List<Partition> partitions, LocalDateTime cutoff) {
+        for (Partition p : partitions) {
+            if (p.to() == null || p.to().isAfter(cutoff))
+                continue;
+            if (retentionMode.equals("drop")) {
+                partitionRepository.dropPartition(p.name());
+                System.out.println("Dropped partition " + p.name());
+            } else {
+                partitionRepository.detachPartition(table, p.name());
+                System.out.println("Detached partition " + p.name());
+            }
+        }
+    }
+
+    private static boolean overlapsExisting(List<Partition> partitions, LocalDateTime from, LocalDateTime to) {
+        for (Partition p : partitions) {
+            boolean startsBefore = p.from() == null || p.from().isBefore(to);
+            boolean endsAfter = p.to() == null || p.to().isAfter(from);
+            if (startsBefore && endsAfter)
+                return true;
+        }
+        return false;
+    }
+}
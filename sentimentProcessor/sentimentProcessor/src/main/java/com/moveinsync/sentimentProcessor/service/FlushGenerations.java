@@ -0,0 +1,45 @@
+package com.moveinsync.sentimentProcessor.service;
+
+import com.moveinsync.sentimentProcessor.repository.SnapshotTable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-type counters in Redis, {@code flush:generation:<type>}, that
+ * FlushService bumps after every flush that wrote snapshots of that type.
+ * Readers on any instance compare them to tell whether something derived
+ * from a snapshot table is still current.
+ */
+@Component
+@RequiredArgsConstructor
+public class FlushGenerations {
+
+    private final StringRedisTemplate redisTemplate;
+
+    public long current(SnapshotTable table) {
+        String key = key(table);
+        String value = redisTemplate.opsForValue().get(key);
+        if (value == null) {
+            start(key);
+            value = redisTemplate.opsForValue().get(key);
+        }
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    public void bump(SnapshotTable table) {
+        String key = key(table);
+        start(key);
+        redisTemplate.opsForValue().increment(key);
+    }
+
+    // A lost counter restarts from the clock instead of 0, so it does not
+    // repeat values handed out before
+    private void start(String key) {
+        redisTemplate.opsForValue().setIfAbsent(key, Long.toString(System.currentTimeMillis()));
+    }
+
+    private static String key(SnapshotTable table) {
+        return "flush:generation:" + table.name().toLowerCase();
+    }
+}
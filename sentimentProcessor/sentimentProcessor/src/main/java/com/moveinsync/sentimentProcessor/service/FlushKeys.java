@@ -0,0 +1,99 @@
+package com.moveinsync.sentimentProcessor.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis key layout shared by the metric writer, the flush and its scheduler.
+ *
+ * Dirty tracking is sharded into flush.slots slots by hashing the entity id:
+ * ids are marked in {@code <type>:dirty:<slot>}, and each slot is flushed by
+ * whichever instance holds its lease (see {@link FlushSlotOwnership}).
+ *
+ * In {@code absolute} flush mode (the default) the metric script increments
+ * the shared {@code <type>:metrics:<id>} totals, which the flush copies into
+ * the snapshot tables. In {@code delta} mode it increments
+ * {@code <type>:delta:<slot>:<id>} instead, and the flush adds those deltas
+ * to the stored totals, so a slot changing owner mid-flush can never
+ * overwrite newer totals with older ones.
+ */
+@Component
+public class FlushKeys {
+
+    private final boolean deltaMode;
+    private final int slots;
+
+    public FlushKeys(@Value("${flush.mode:absolute}") String mode, @Value("${flush.slots:16}") int slots) {
+        if (!mode.equals("absolute") && !mode.equals("delta"))
+            throw new IllegalArgumentException("flush.mode must be absolute or delta, got " + mode);
+        if (slots < 1)
+            throw new IllegalArgumentException("flush.slots must be positive, got " + slots);
+        this.deltaMode = mode.equals("delta");
+        this.slots = slots;
+    }
+
+    public boolean isDeltaMode() {
+        return deltaMode;
+    }
+
+    public int slots() {
+        return slots;
+    }
+
+    /**
+     * Slot of an entity id. String.hashCode is specified by the JLS, so every
+     * instance maps an id to the same slot.
+     */
+    public int slot(String id) {
+        return Math.floorMod(id.hashCode(), slots);
+    }
+
+    /**
+     * Hash the metric script increments for a flushed entity type.
+     */
+    public String metrics(String type, String id) {
+        return deltaMode ? deltaPrefix(type, slot(id)) + id : totals(type, id);
+    }
+
+    /**
+     * Shared running totals of an entity: what the flush reads in absolute
+     * mode, and where metrics of types that are not flushed accumulate.
+     */
+    public String totals(String type, String id) {
+        return type + ":metrics:" + id;
+    }
+
+    public String deltaPrefix(String type, int slot) {
+        return type + ":delta:" + slot + ":";
+    }
+
+    public String dirty(String type, int slot) {
+        return type + ":dirty:" + slot;
+    }
+
+    public String dirtySince(String type, int slot) {
+        return dirty(type, slot) + ":since";
+    }
+
+    /**
+     * Dirty set used before dirty tracking was sharded.
+     */
+    public String legacyDirty(String type) {
+        return type + ":dirty";
+    }
+
+    /**
+     * Set of a slot's drained-but-unapplied delta batches.
+     */
+    public String pendingIndex(String type, int slot) {
+        return type + ":pending:" + slot;
+    }
+
+    public String pending(String type, int slot, String batchId) {
+        return pendingIndex(type, slot) + ":" + batchId;
+    }
+
+    public String batchId(String pendingKey) {
+        return pendingKey.substring(pendingKey.lastIndexOf(':') + 1);
+    }
+}
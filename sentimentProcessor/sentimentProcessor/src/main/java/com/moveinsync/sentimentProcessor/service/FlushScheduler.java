@@ -0,0 +1,151 @@
+package com.moveinsync.sentimentProcessor.service;
+
+import com.moveinsync.sentimentProcessor.repository.SnapshotTable;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides when {@link FlushService} runs. A cheap check reads the size of
+ * every dirty set in the slots this instance owns and the time its oldest unflushed mark was made
+ * ({@code <dirty set>:since}, see {@link FlushKeys}) in one pipelined
+ * round-trip, and triggers a flush once either the backlog or the staleness
+ * crosses its threshold. Unapplied delta batches left by a failed flush count
+ * as overdue.
+ *
+ * While nothing is dirty the check backs off exponentially up to
+ * flush.idle-backoff-max-ms, so an idle system costs almost no Redis traffic.
+ * The oldest mark age is exported as {@code flush.lag}, the backlog as
+ * {@code flush.dirty}.
+ */
+@Service
+@RequiredArgsConstructor
+public class FlushScheduler {
+
+    private final FlushService flushService;
+    private final FlushKeys flushKeys;
+    private final FlushSlotOwnership slotOwnership;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong lag = new AtomicLong();
+    private final AtomicLong dirty = new AtomicLong();
+
+    @Value("${flush.check-interval-ms:500}")
+    private long checkIntervalMs;
+
+    @Value("${flush.idle-backoff-max-ms:10000}")
+    private long idleBackoffMaxMs;
+
+    @Value("${flush.trigger.dirty-count:1000}")
+    private long dirtyCountTrigger;
+
+    @Value("${flush.trigger.max-lag-ms:5000}")
+    private long maxLagMs;
+
+    private long idleDelayMs;
+    private long nextCheckAt;
+
+    @PostConstruct
+    public void registerGauges() {
+        meterRegistry.gauge("flush.lag", lag);
+        meterRegistry.gauge("flush.dirty", dirty);
+    }
+
+    @Scheduled(fixedDelayString = "${flush.check-interval-ms:500}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        if (now < nextCheckAt)
+            return;
+
+        DirtyState state;
+        try {
+            state = readDirtyState();
+        } catch (Exception e) {
+            System.err.println("Failed to read dirty state, flushing anyway: " + e.getMessage());
+            flushService.flush();
+            return;
+        }
+        dirty.set(state.count());
+        lag.set(state.oldestAgeMs());
+
+        if (state.count() == 0) {
+            // Idle: double the wait between checks, up to the configured cap
+            idleDelayMs = idleDelayMs == 0 ? checkIntervalMs : Math.min(idleDelayMs * 2, idleBackoffMaxMs);
+            nextCheckAt = now + idleDelayMs;
+            return;
+        }
+        idleDelayMs = 0;
+        nextCheckAt = 0;
+
+        if (state.count() >= dirtyCountTrigger || state.oldestAgeMs() >= maxLagMs) {
+            flushService.flush();
+        }
+    }
+
+    /**
+     * Reads SCARD and the oldest-mark time of every type plus the Redis clock
+     * in one pipeline, so ages are measured on the clock that wrote the marks.
+     */
+    private DirtyState readDirtyState() {
+        int[] slots = slotOwnership.ownedSlots();
+        if (slots.length == 0)
+            return new DirtyState(0, 0);
+
+        SnapshotTable[] tables = SnapshotTable.values();
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (SnapshotTable table : tables) {
+                String type = table.name().toLowerCase();
+                for (int slot : slots) {
+                    connection.setCommands().sCard(bytes(flushKeys.dirty(type, slot)));
+                    connection.stringCommands().get(bytes(flushKeys.dirtySince(type, slot)));
+                    connection.setCommands().sCard(bytes(flushKeys.pendingIndex(type, slot)));
+                }
+            }
+            connection.serverCommands().time();
+            return null;
+        });
+
+        int sets = tables.length * slots.length;
+        long redisNow = ((Number) replies.get(sets * 3)).longValue();
+        long count = 0;
+        long oldestAge = 0;
+        for (int i = 0; i < sets; i++) {
+            long size = toLong(replies.get(i * 3));
+            if (size > 0) {
+                count += size;
+                Object since = replies.get(i * 3 + 1);
+                // Marks from before the since key existed: treat as overdue
+                long age = since == null ? maxLagMs : redisNow - Long.parseLong(since.toString());
+                oldestAge = Math.max(oldestAge, age);
+            }
+
+            long pending = toLong(replies.get(i * 3 + 2));
+            if (pending > 0) {
+                count += pending;
+                oldestAge = Math.max(oldestAge, maxLagMs);
+            }
+        }
+        return new DirtyState(count, oldestAge);
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long toLong(Object reply) {
+        return reply == null ? 0 : ((Number) reply).longValue();
+    }
+
+    private record DirtyState(long count, long oldestAgeMs) {
+    }
+}
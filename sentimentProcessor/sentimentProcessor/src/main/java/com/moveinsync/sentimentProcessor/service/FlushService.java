@@ -1,29 +1,74 @@
 package com.moveinsync.sentimentProcessor.service;
 
+import com.moveinsync.sentimentProcessor.entity.AppSentiment;
 import com.moveinsync.sentimentProcessor.event.DriverAlertEvent;
-import com.moveinsync.sentimentProcessor.repository.DriverSentimentRepository;
-import com.moveinsync.sentimentProcessor.repository.MarshalSentimentRepository;
-import com.moveinsync.sentimentProcessor.repository.TripSentimentRepository;
+import com.moveinsync.sentimentProcessor.repository.SentimentSnapshot;
+import com.moveinsync.sentimentProcessor.repository.SentimentSnapshotRepository;
+import com.moveinsync.sentimentProcessor.repository.SnapshotTable;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 @RequiredArgsConstructor
 public class FlushService {
 
     private final StringRedisTemplate redisTemplate;
-    private final DriverSentimentRepository driverRepository;
-    private final TripSentimentRepository tripRepository;
-    private final MarshalSentimentRepository marshalRepository;
+    private final SentimentSnapshotRepository snapshotRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final MeterRegistry meterRegistry;
+    private final FlushKeys flushKeys;
+    private final FlushSlotOwnership slotOwnership;
+    private final LeaderboardService leaderboards;
+    private final FlushGenerations generations;
+
+    private final RedisScript<Long> seedScript = RedisScript.of(
+            new ClassPathResource("scripts/seed_app_metrics.lua"), Long.class);
+
+    private final RedisScript<Long> reseedScript = RedisScript.of(
+            new ClassPathResource("scripts/reseed_metrics.lua"), Long.class);
+
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> drainScript = RedisScript.of(
+            new ClassPathResource("scripts/drain_deltas.lua"), List.class);
+
+    private static final byte[][] METRIC_FIELDS = {
+            "total_rating_sum".getBytes(StandardCharsets.UTF_8),
+            "feedback_count".getBytes(StandardCharsets.UTF_8),
+            "positive_count".getBytes(StandardCharsets.UTF_8),
+            "neutral_count".getBytes(StandardCharsets.UTF_8),
+            "negative_count".getBytes(StandardCharsets.UTF_8)
+    };
 
     @Value("${alert.threshold:2.5}")
     private double alertThreshold;
@@ -31,105 +76,500 @@ public class FlushService {
     @Value("${alert.minFeedback:1}")
     private int minFeedback;
 
-    @Scheduled(fixedDelay = 30000)
-    public void flush() {
-        flushDrivers();
-        flushTrips();
-        flushMarshals();
+    @Value("${flush.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${flush.delta.log-retention-hours:168}")
+    private int logRetentionHours;
+
+    private final ExecutorService flushExecutor = Executors.newFixedThreadPool(SnapshotTable.values().length * 2,
+            new CustomizableThreadFactory("flush-"));
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Types with snapshots written since the last generation bump
+    private final Set<SnapshotTable> changed = ConcurrentHashMap.newKeySet();
+    private Semaphore inFlightChunks;
+
+    @Value("${flush.max-in-flight-chunks:4}")
+    public void setMaxInFlightChunks(int maxInFlightChunks) {
+        this.inFlightChunks = new Semaphore(Math.max(1, maxInFlightChunks));
     }
 
-    private void flushDrivers() {
-        Set<String> dirtyDrivers = redisTemplate.opsForSet().members("driver:dirty");
-        if (dirtyDrivers == null || dirtyDrivers.isEmpty())
+    /**
+     * Flushes drivers, trips, marshals and the app aggregate concurrently,
+     * covering the slots
+     * this instance owns. Within each type the next chunk is fetched from
+     * Redis while the current one is written to Postgres;
+     * flush.max-in-flight-chunks caps fetched-but-unwritten chunks across all
+     * types. Triggered by {@link FlushScheduler}.
+     */
+    public void flush() {
+        if (!flushLock.tryLock())
             return;
+        try {
+            int[] slots = slotOwnership.ownedSlots();
+            if (slots.length == 0)
+                return;
+            Timer.Sample sample = Timer.start(meterRegistry);
+            CompletableFuture.allOf(
+                    CompletableFuture.runAsync(() -> drainSlots(SnapshotTable.DRIVER, slots), flushExecutor),
+                    CompletableFuture.runAsync(() -> drainSlots(SnapshotTable.TRIP, slots), flushExecutor),
+                    CompletableFuture.runAsync(() -> drainSlots(SnapshotTable.MARSHAL, slots), flushExecutor),
+                    CompletableFuture.runAsync(() -> drainSlots(SnapshotTable.APP, slots), flushExecutor))
+                    .join();
+            sample.stop(meterRegistry.timer("flush.duration"));
+        } finally {
+            bumpGenerations();
+            flushLock.unlock();
+        }
+    }
 
-        for (String driverId : dirtyDrivers) {
-            Map<Object, Object> metrics = redisTemplate.opsForHash().entries("driver:metrics:" + driverId);
-            if (metrics.isEmpty())
+    /**
+     * Tells readers of the snapshot tables which types this flush changed.
+     */
+    private void bumpGenerations() {
+        for (SnapshotTable table : SnapshotTable.values()) {
+            if (!changed.remove(table))
                 continue;
+            try {
+                generations.bump(table);
+            } catch (Exception e) {
+                System.err.println("Failed to bump " + table.name().toLowerCase() + " flush generation: "
+                        + e.getMessage());
+            }
+        }
+    }
 
-            double totalSum = Double.parseDouble(metrics.getOrDefault("total_rating_sum", "0").toString());
-            int count = Integer.parseInt(metrics.getOrDefault("feedback_count", "0").toString());
-            int pos = Integer.parseInt(metrics.getOrDefault("positive_count", "0").toString());
-            int neu = Integer.parseInt(metrics.getOrDefault("neutral_count", "0").toString());
-            int neg = Integer.parseInt(metrics.getOrDefault("negative_count", "0").toString());
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+    }
 
-            if (count == 0)
-                continue;
-            double avg = totalSum / count;
+    /**
+     * Moves ids marked before dirty tracking was sharded into their slots.
+     * SPOP is atomic, so instances starting together split the work.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyDirtySets() {
+        try {
+            for (SnapshotTable table : SnapshotTable.values()) {
+                String type = table.name().toLowerCase();
+                List<String> ids;
+                while ((ids = redisTemplate.opsForSet().pop(flushKeys.legacyDirty(type), chunkSize)) != null
+                        && !ids.isEmpty()) {
+                    for (String id : ids) {
+                        redisTemplate.opsForSet().add(flushKeys.dirty(type, flushKeys.slot(id)), id);
+                    }
+                }
+                redisTemplate.delete(flushKeys.legacyDirty(type) + ":since");
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to migrate legacy dirty sets: " + e.getMessage());
+        }
+    }
 
-            driverRepository.upsert(driverId, totalSum, count, avg, pos, neu, neg);
-            handleAlert(driverId, avg, count);
+    /**
+     * Adds the app_feedback history to the app aggregate once, recorded as
+     * the {@code app-seed} flush log entry; from then on the flush keeps it up
+     * to date. In delta mode the seed is applied like any batch, atomically
+     * with that entry. In absolute mode it is added to the Redis totals by
+     * seed_app_metrics.lua, which app:seeded guards against a second run if
+     * the process dies before the entry is written. A failed seed is retried
+     * on the next start. Runs once the application is ready, so the tables
+     * Hibernate creates exist.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedAppSnapshot() {
+        try {
+            if (snapshotRepository.isBatchLogged(SentimentSnapshotRepository.APP_SEED_BATCH))
+                return;
+            SentimentSnapshot total = snapshotRepository.aggregateAppFeedback();
+            if (flushKeys.isDeltaMode()) {
+                snapshotRepository.applyDeltas(SnapshotTable.APP, SentimentSnapshotRepository.APP_SEED_BATCH,
+                        total == null ? List.of() : List.of(total));
+            } else {
+                if (total != null)
+                    redisTemplate.execute(seedScript,
+                            List.of("app:seeded", flushKeys.metrics("app", AppSentiment.APP_ID),
+                                    flushKeys.dirty("app", flushKeys.slot(AppSentiment.APP_ID))),
+                            AppSentiment.APP_ID, Long.toString((long) total.totalRatingSum()),
+                            Integer.toString(total.feedbackCount()), Integer.toString(total.positiveCount()),
+                            Integer.toString(total.neutralCount()), Integer.toString(total.negativeCount()));
+                snapshotRepository.logBatch(SentimentSnapshotRepository.APP_SEED_BATCH);
+            }
+            System.out.println("Seeded app sentiment from " + (total == null ? 0 : total.feedbackCount())
+                    + " feedbacks");
+        } catch (Exception e) {
+            System.err.println("Failed to seed app sentiment, retrying on next start: " + e.getMessage());
         }
-        redisTemplate.delete("driver:dirty");
     }
 
-    private void flushTrips() {
-        Set<String> dirtyTrips = redisTemplate.opsForSet().members("trip:dirty");
-        if (dirtyTrips == null || dirtyTrips.isEmpty())
+    @Scheduled(fixedDelayString = "${flush.delta.log-prune-interval-ms:3600000}")
+    public void pruneFlushLog() {
+        if (!flushKeys.isDeltaMode())
             return;
+        int pruned = snapshotRepository.pruneFlushLog(logRetentionHours);
+        if (pruned > 0)
+            System.out.println("Pruned " + pruned + " flush log entries");
+    }
 
-        for (String tripId : dirtyTrips) {
-            Map<Object, Object> metrics = redisTemplate.opsForHash().entries("trip:metrics:" + tripId);
-            if (metrics.isEmpty())
-                continue;
+    private void drainSlots(SnapshotTable table, int[] slots) {
+        for (int slot : slots) {
+            drain(table, slot);
+        }
+    }
 
-            double totalSum = Double.parseDouble(metrics.getOrDefault("total_rating_sum", "0").toString());
-            int count = Integer.parseInt(metrics.getOrDefault("feedback_count", "0").toString());
-            int pos = Integer.parseInt(metrics.getOrDefault("positive_count", "0").toString());
-            int neu = Integer.parseInt(metrics.getOrDefault("neutral_count", "0").toString());
-            int neg = Integer.parseInt(metrics.getOrDefault("negative_count", "0").toString());
+    /**
+     * Drains {@code <type>:dirty:<slot>} in chunks of at most flush.chunk-size
+     * ids. SPOP removes each chunk atomically, so ids marked dirty while the
+     * flush runs are never lost, and only as many ids as the set held at the start
+     * are taken, so a busy consumer cannot keep one flush going forever.
+     * A chunk that fails is put back for the next flush.
+     *
+     * In delta mode each chunk is moved into a pending batch instead, and
+     * batches left by an earlier failed flush are replayed first.
+     */
+    private void drain(SnapshotTable table, int slot) {
+        String type = table.name().toLowerCase();
+        if (flushKeys.isDeltaMode()) {
+            try {
+                replayPending(table, type, slot);
+            } catch (Exception e) {
+                System.err.println("Failed to replay pending " + type + " batches: " + e.getMessage());
+                return;
+            }
+        }
 
-            if (count == 0)
-                continue;
-            tripRepository.upsert(tripId, totalSum, count, avg(totalSum, count), pos, neu, neg);
+        String dirtyKey = flushKeys.dirty(type, slot);
+        Long size = redisTemplate.opsForSet().size(dirtyKey);
+        long remaining = size == null ? 0 : size;
+        if (remaining == 0)
+            return;
+
+        // Marks made from here on record a fresh oldest-mark time; Redis TIME
+        // keeps it on the same clock as record_feedback.lua
+        Long started = redisTemplate.execute((RedisCallback<Long>) connection -> connection.serverCommands().time());
+        redisTemplate.delete(flushKeys.dirtySince(type, slot));
+        try {
+            drainChunks(table, type, slot, remaining);
+        } finally {
+            // Ids left behind are at most as old as this flush
+            Long left = redisTemplate.opsForSet().size(dirtyKey);
+            if (left != null && left > 0 && started != null)
+                redisTemplate.opsForValue().setIfAbsent(flushKeys.dirtySince(type, slot), started.toString());
+        }
+    }
+
+    private void drainChunks(SnapshotTable table, String type, int slot, long remaining) {
+        inFlightChunks.acquireUninterruptibly();
+        CompletableFuture<Chunk> next = fetchAsync(table, slot, Math.min(chunkSize, remaining));
+        while (next != null) {
+            Chunk chunk;
+            try {
+                chunk = next.join();
+            } catch (CompletionException e) {
+                inFlightChunks.release();
+                System.err.println("Failed to fetch " + type + " chunk: " + e.getCause().getMessage());
+                return;
+            }
+            if (chunk.ids().isEmpty()) {
+                inFlightChunks.release();
+                return;
+            }
+            remaining -= chunk.ids().size();
+
+            // Prefetch chunk N+1 while chunk N is written, if the cap allows
+            next = null;
+            boolean prefetched = false;
+            if (remaining > 0 && inFlightChunks.tryAcquire()) {
+                next = fetchAsync(table, slot, Math.min(chunkSize, remaining));
+                prefetched = true;
+            }
+
+            try {
+                write(table, chunk);
+            } catch (Exception e) {
+                requeue(type, slot, chunk.ids());
+                System.err.println("Failed to flush " + type + " chunk of " + chunk.ids().size() + ", requeued: "
+                        + e.getMessage());
+                if (next != null) {
+                    next.thenAccept(c -> requeue(type, slot, c.ids()));
+                    next.whenComplete((c, ex) -> inFlightChunks.release());
+                }
+                return;
+            } finally {
+                inFlightChunks.release();
+            }
+
+            if (!prefetched && remaining > 0) {
+                inFlightChunks.acquireUninterruptibly();
+                next = fetchAsync(table, slot, Math.min(chunkSize, remaining));
+            }
         }
-        redisTemplate.delete("trip:dirty");
     }
 
-    private void flushMarshals() {
-        Set<String> dirtyMarshals = redisTemplate.opsForSet().members("marshal:dirty");
-        if (dirtyMarshals == null || dirtyMarshals.isEmpty())
+    private CompletableFuture<Chunk> fetchAsync(SnapshotTable table, int slot, long count) {
+        return CompletableFuture.supplyAsync(() -> fetch(table, slot, count), flushExecutor);
+    }
+
+    /**
+     * Pops the next chunk of dirty ids and reads their metrics.
+     */
+    private Chunk fetch(SnapshotTable table, int slot, long count) {
+        String type = table.name().toLowerCase();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        if (flushKeys.isDeltaMode()) {
+            Chunk chunk = drainDeltas(type, slot, count);
+            sample.stop(stageTimer(type, "fetch"));
+            return chunk;
+        }
+
+        List<String> ids = redisTemplate.opsForSet().pop(flushKeys.dirty(type, slot), count);
+        if (ids == null || ids.isEmpty())
+            return new Chunk(List.of(), List.of(), slot, null);
+
+        try {
+            Chunk chunk = new Chunk(ids, fetchSnapshots(type, ids), slot, null);
+            sample.stop(stageTimer(type, "fetch"));
+            return chunk;
+        } catch (RuntimeException e) {
+            requeue(type, slot, ids);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes all snapshots of a chunk in one statement, then evaluates driver
+     * alerts and updates the leaderboards. A delta batch is added to the
+     * stored totals and only then removed from Redis. Snapshots the upsert
+     * skips are handled by {@link #reseedSkipped}.
+     */
+    private void write(SnapshotTable table, Chunk chunk) {
+        String type = table.name().toLowerCase();
+        List<SentimentSnapshot> snapshots = chunk.snapshots();
+
+        long start = System.nanoTime();
+        List<SentimentSnapshot> totals;
+        if (chunk.batchId() == null) {
+            totals = snapshotRepository.upsertAll(table, snapshots);
+            if (totals.size() < snapshots.size())
+                reseedSkipped(table, type, chunk.slot(), snapshots, totals);
+        } else {
+            totals = snapshotRepository.applyDeltas(table, chunk.batchId(), snapshots);
+        }
+        changed.add(table);
+        long nanos = System.nanoTime() - start;
+        stageTimer(type, "upsert").record(nanos, TimeUnit.NANOSECONDS);
+        long micros = Math.max(1, nanos / 1000);
+        System.out.println("Flushed " + snapshots.size() + " " + type + " snapshots in " + micros / 1000 + " ms ("
+                + snapshots.size() * 1_000_000L / micros + " rows/s)");
+
+        if (table == SnapshotTable.DRIVER) {
+            stageTimer(type, "alerts").record(() -> handleAlerts(totals));
+        }
+        if (LeaderboardService.isRanked(table)) {
+            try {
+                stageTimer(type, "leaderboard").record(() -> leaderboards.update(type, totals));
+            } catch (Exception e) {
+                // The snapshots are written; the next flush of these ids catches up
+                System.err.println("Failed to update " + type + " leaderboards: " + e.getMessage());
+            }
+        }
+
+        if (chunk.batchId() != null) {
+            String pendingKey = flushKeys.pending(type, chunk.slot(), chunk.batchId());
+            redisTemplate.delete(pendingKey);
+            redisTemplate.opsForSet().remove(flushKeys.pendingIndex(type, chunk.slot()), pendingKey);
+        }
+    }
+
+    /**
+     * Snapshots skipped by the upsert have a lower count than the stored
+     * row. Usually that is a read that lost the race with a newer flush, and
+     * nothing is lost. But Redis counters only grow, so if Redis now holds
+     * less than the stored row, it lost its totals (flush, failover,
+     * eviction). reseed_metrics.lua then adds the stored row back and marks
+     * the entity dirty, so the next flush writes the stored totals plus the
+     * new feedback instead of the snapshot staying frozen. Skips are counted
+     * in flush.snapshot.skipped, reseeds in flush.snapshot.reseeded.
+     */
+    private void reseedSkipped(SnapshotTable table, String type, int slot, List<SentimentSnapshot> snapshots,
+            List<SentimentSnapshot> written) {
+        Set<String> writtenIds = new HashSet<>(written.size() * 2);
+        for (SentimentSnapshot s : written) {
+            writtenIds.add(s.id());
+        }
+        List<String> skipped = new ArrayList<>(snapshots.size() - written.size());
+        for (SentimentSnapshot s : snapshots) {
+            if (!writtenIds.contains(s.id()))
+                skipped.add(s.id());
+        }
+        meterRegistry.counter("flush.snapshot.skipped", "type", type).increment(skipped.size());
+
+        int reseeded = 0;
+        try {
+            for (SentimentSnapshot stored : snapshotRepository.findAll(table, skipped)) {
+                Long result = redisTemplate.execute(reseedScript,
+                        List.of(flushKeys.metrics(type, stored.id()), flushKeys.dirty(type, slot)),
+                        stored.id(), Long.toString(Math.round(stored.totalRatingSum())),
+                        Integer.toString(stored.feedbackCount()), Integer.toString(stored.positiveCount()),
+                        Integer.toString(stored.neutralCount()), Integer.toString(stored.negativeCount()));
+                if (result != null && result == 1)
+                    reseeded++;
+            }
+        } catch (Exception e) {
+            // Checked again on the next flush of these ids
+            System.err.println("Failed to reseed " + type + " metrics from Postgres: " + e.getMessage());
+            requeue(type, slot, skipped);
+        }
+        meterRegistry.counter("flush.snapshot.reseeded", "type", type).increment(reseeded);
+        System.out.println("Skipped " + skipped.size() + " " + type + " snapshots older than the stored rows, "
+                + reseeded + " of them reseeded from Postgres after a Redis reset");
+    }
+
+    private void requeue(String type, int slot, List<String> ids) {
+        // Delta batches stay pending in Redis and are replayed instead
+        if (!ids.isEmpty() && !flushKeys.isDeltaMode())
+            redisTemplate.opsForSet().add(flushKeys.dirty(type, slot), ids.toArray(String[]::new));
+    }
+
+    /**
+     * Atomically moves the deltas of up to {@code count} dirty ids into a new
+     * pending batch.
+     */
+    private Chunk drainDeltas(String type, int slot, long count) {
+        String batchId = UUID.randomUUID().toString();
+        List<?> flat = redisTemplate.execute(drainScript,
+                List.of(flushKeys.dirty(type, slot), flushKeys.pending(type, slot, batchId),
+                        flushKeys.pendingIndex(type, slot)),
+                Long.toString(count), flushKeys.deltaPrefix(type, slot));
+        if (flat == null || flat.isEmpty())
+            return new Chunk(List.of(), List.of(), slot, null);
+
+        List<String> ids = new ArrayList<>(flat.size() / 2);
+        List<SentimentSnapshot> deltas = new ArrayList<>(flat.size() / 2);
+        for (int i = 0; i < flat.size(); i += 2) {
+            ids.add(flat.get(i).toString());
+            deltas.add(parseDelta(flat.get(i).toString(), flat.get(i + 1).toString()));
+        }
+        return new Chunk(ids, deltas, slot, batchId);
+    }
+
+    /**
+     * Applies batches that were drained by an earlier flush but not removed,
+     * e.g. because the process died mid-write. The flush log skips the ones
+     * that had already been committed.
+     */
+    private void replayPending(SnapshotTable table, String type, int slot) {
+        Set<String> pendingKeys = redisTemplate.opsForSet().members(flushKeys.pendingIndex(type, slot));
+        if (pendingKeys == null)
             return;
 
-        for (String marshalId : dirtyMarshals) {
-            Map<Object, Object> metrics = redisTemplate.opsForHash().entries("marshal:metrics:" + marshalId);
-            if (metrics.isEmpty())
-                continue;
+        for (String pendingKey : pendingKeys) {
+            Map<Object, Object> rows = redisTemplate.opsForHash().entries(pendingKey);
+            List<String> ids = new ArrayList<>(rows.size());
+            List<SentimentSnapshot> deltas = new ArrayList<>(rows.size());
+            rows.forEach((id, row) -> {
+                ids.add(id.toString());
+                deltas.add(parseDelta(id.toString(), row.toString()));
+            });
+            System.out.println("Replaying pending " + type + " batch of " + ids.size());
+            write(table, new Chunk(ids, deltas, slot, flushKeys.batchId(pendingKey)));
+        }
+    }
+
+    private static SentimentSnapshot parseDelta(String id, String row) {
+        String[] v = row.split(",");
+        double sum = Double.parseDouble(v[0]);
+        int count = Integer.parseInt(v[1]);
+        return new SentimentSnapshot(id, sum, count, count == 0 ? 0.0 : sum / count,
+                Integer.parseInt(v[2]), Integer.parseInt(v[3]), Integer.parseInt(v[4]));
+    }
+
+    private Timer stageTimer(String type, String stage) {
+        return meterRegistry.timer("flush.stage", "type", type, "stage", stage);
+    }
 
-            double totalSum = Double.parseDouble(metrics.getOrDefault("total_rating_sum", "0").toString());
-            int count = Integer.parseInt(metrics.getOrDefault("feedback_count", "0").toString());
-            int pos = Integer.parseInt(metrics.getOrDefault("positive_count", "0").toString());
-            int neu = Integer.parseInt(metrics.getOrDefault("neutral_count", "0").toString());
-            int neg = Integer.parseInt(metrics.getOrDefault("negative_count", "0").toString());
+    /**
+     * Fetches the metric hashes of a whole chunk in one pipelined round-trip.
+     * HMGET returns the fields in {@link #METRIC_FIELDS} order as raw bytes,
+     * which are parsed straight into primitives.
+     */
+    private List<SentimentSnapshot> fetchSnapshots(String type, List<String> ids) {
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String id : ids) {
+                byte[] key = flushKeys.metrics(type, id).getBytes(StandardCharsets.UTF_8);
+                connection.hashCommands().hMGet(key, METRIC_FIELDS);
+            }
+            return null;
+        }, RedisSerializer.byteArray());
 
+        List<SentimentSnapshot> snapshots = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            List<?> values = (List<?>) replies.get(i);
+            int count = (int) parseNumber(values.get(1));
             if (count == 0)
                 continue;
-            marshalRepository.upsert(marshalId, totalSum, count, avg(totalSum, count), pos, neu, neg);
+
+            double totalSum = parseNumber(values.get(0));
+            snapshots.add(new SentimentSnapshot(ids.get(i), totalSum, count, avg(totalSum, count),
+                    (int) parseNumber(values.get(2)),
+                    (int) parseNumber(values.get(3)),
+                    (int) parseNumber(values.get(4))));
         }
-        redisTemplate.delete("marshal:dirty");
+        return snapshots;
+    }
+
+    private static double parseNumber(Object value) {
+        if (value == null)
+            return 0;
+        byte[] bytes = (byte[]) value;
+        long result = 0;
+        boolean negative = bytes.length > 0 && bytes[0] == '-';
+        for (int i = negative ? 1 : 0; i < bytes.length; i++) {
+            byte b = bytes[i];
+            if (b < '0' || b > '9') {
+                // Not a plain integer (e.g. written with HINCRBYFLOAT)
+                return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+            }
+            result = result * 10 + (b - '0');
+        }
+        return negative ? -result : result;
     }
 
     private double avg(double sum, int count) {
         return count == 0 ? 0.0 : sum / count;
     }
 
-    private void handleAlert(String driverId, double avg, int count) {
-        String alertStateKey = "driver:alerted:" + driverId;
-        boolean currentlyAlerted = Boolean.TRUE.equals(redisTemplate.hasKey(alertStateKey));
-
-        if (avg < alertThreshold && count >= minFeedback) {
-            if (!currentlyAlerted) {
-                sendAlert(driverId, avg, count, "LOW_RATING");
-                redisTemplate.opsForValue().set(alertStateKey, "true");
-                redisTemplate.opsForSet().add("alerts:active", driverId);
-            }
-        } else {
-            if (currentlyAlerted) {
-                sendAlert(driverId, avg, count, "RECOVERED");
-                redisTemplate.delete(alertStateKey);
-                redisTemplate.opsForSet().remove("alerts:active", driverId);
+    /**
+     * Evaluates the alert state of a whole chunk of drivers in one pipelined
+     * round-trip. {@code alerts:active} is the only alert state: SADD returns
+     * 1 only when a driver enters it and SREM only when one leaves it, so
+     * alerts are sent exactly on transitions.
+     */
+    private void handleAlerts(List<SentimentSnapshot> snapshots) {
+        if (snapshots.isEmpty())
+            return;
+        byte[] activeKey = "alerts:active".getBytes(StandardCharsets.UTF_8);
+        boolean[] low = new boolean[snapshots.size()];
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < snapshots.size(); i++) {
+                SentimentSnapshot s = snapshots.get(i);
+                byte[] member = s.id().getBytes(StandardCharsets.UTF_8);
+                low[i] = s.averageRating() < alertThreshold && s.feedbackCount() >= minFeedback;
+                if (low[i]) {
+                    connection.setCommands().sAdd(activeKey, member);
+                } else {
+                    connection.setCommands().sRem(activeKey, member);
+                }
             }
+            return null;
+        });
+
+        for (int i = 0; i < snapshots.size(); i++) {
+            if (((Number) replies.get(i)).longValue() == 0)
+                continue;
+            SentimentSnapshot s = snapshots.get(i);
+            sendAlert(s.id(), s.averageRating(), s.feedbackCount(), low[i] ? "LOW_RATING" : "RECOVERED");
         }
     }
 
@@ -145,4 +585,10 @@ public class FlushService {
         messagingTemplate.convertAndSend("/topic/alerts", alertEvent);
         System.out.println("Alert " + type + " sent for driver: " + driverId);
     }
-}
\ No newline at end of file
+
+    /**
+     * A drained chunk; {@code batchId} is set for delta batches only.
+     */
+    private record Chunk(List<String> ids, List<SentimentSnapshot> snapshots, int slot, String batchId) {
+    }
+}
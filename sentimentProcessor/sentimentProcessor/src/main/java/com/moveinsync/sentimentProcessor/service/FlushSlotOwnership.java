@@ -0,0 +1,89 @@
+package com.moveinsync.sentimentProcessor.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Splits the flush slots between processor instances with leases in Redis.
+ * Every heartbeat records this instance in {@code flush:members} and runs
+ * claim_slots.lua, which drops members that missed a lease period, releases
+ * slots above this instance's share of ceil(slots / live members), renews the
+ * rest and claims free ones. Joins and departures are therefore rebalanced
+ * within one heartbeat of the affected instances.
+ *
+ * A lease can lapse while its old holder is still flushing the slot, so for a
+ * moment two instances may drain it. In delta mode each drained batch is
+ * applied once; in absolute mode the snapshot upsert skips totals with a
+ * lower feedback count than the stored row, so the older read cannot win.
+ */
+@Service
+public class FlushSlotOwnership {
+
+    private static final String MEMBERS_KEY = "flush:members";
+    private static final String LEASE_PREFIX = "flush:slot:";
+
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> claimScript = RedisScript.of(
+            new ClassPathResource("scripts/claim_slots.lua"), List.class);
+    private final RedisScript<Long> releaseScript = RedisScript.of(
+            new ClassPathResource("scripts/release_slots.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final FlushKeys flushKeys;
+    private final String instanceId;
+    private final long leaseMs;
+
+    private volatile int[] ownedSlots = new int[0];
+
+    public FlushSlotOwnership(StringRedisTemplate redisTemplate, FlushKeys flushKeys,
+            @Value("${flush.instance-id:${HOSTNAME:local}}") String instanceId,
+            @Value("${flush.lease.ttl-ms:10000}") long leaseMs) {
+        this.redisTemplate = redisTemplate;
+        this.flushKeys = flushKeys;
+        this.instanceId = instanceId;
+        this.leaseMs = leaseMs;
+    }
+
+    /**
+     * Slots this instance held at its last heartbeat.
+     */
+    public int[] ownedSlots() {
+        return ownedSlots;
+    }
+
+    @Scheduled(fixedDelayString = "${flush.lease.renew-interval-ms:3000}")
+    public void heartbeat() {
+        try {
+            List<?> held = redisTemplate.execute(claimScript, List.of(MEMBERS_KEY), instanceId,
+                    Integer.toString(flushKeys.slots()), Long.toString(leaseMs), LEASE_PREFIX);
+            int[] slots = held == null ? new int[0]
+                    : held.stream().mapToInt(s -> ((Number) s).intValue()).sorted().toArray();
+            if (slots.length != ownedSlots.length)
+                System.out.println("Instance " + instanceId + " now owns " + slots.length + " of "
+                        + flushKeys.slots() + " flush slots");
+            ownedSlots = slots;
+        } catch (Exception e) {
+            // Our leases will lapse; stop flushing rather than race the next owner
+            ownedSlots = new int[0];
+            System.err.println("Failed to renew flush slot leases: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        ownedSlots = new int[0];
+        try {
+            redisTemplate.execute(releaseScript, List.of(MEMBERS_KEY), instanceId,
+                    Integer.toString(flushKeys.slots()), LEASE_PREFIX);
+        } catch (Exception e) {
+            System.err.println("Failed to release flush slot leases: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.moveinsync.sentimentProcessor.service;
+
+import com.moveinsync.sentimentProcessor.repository.SentimentSnapshot;
+import com.moveinsync.sentimentProcessor.repository.SentimentSnapshotRepository;
+import com.moveinsync.sentimentProcessor.repository.SnapshotTable;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Sorted-set leaderboards of drivers, trips and marshals by average rating
+ * and by share of negative feedback, written by the flush from the same
+ * totals it stores in the snapshot tables. Updates go through
+ * rank_update.lua, which never lets a lower feedback count replace a higher
+ * one, so concurrent or late writers cannot roll an entity back.
+ *
+ * A sorted set cannot be filtered by a second value, so every metric is kept
+ * once per minimum-feedback tier (leaderboard.min-feedback-tiers):
+ * {@code <type>:rank:<metric>:<tier>} holds the entities with at least
+ * {@code tier} feedbacks. Only a query whose minimum is a tier (or below
+ * the lowest one) is O(log n + K). Any other minimum starts from the next
+ * lower tier and skips the entities below it using the feedback counts in
+ * {@code <type>:rank:count}, so its cost also grows with the number of
+ * entities skipped.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final SnapshotTable[] RANKED_TABLES = { SnapshotTable.DRIVER, SnapshotTable.TRIP,
+            SnapshotTable.MARSHAL };
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+    private static final String LIVE = "";
+    private static final String BUILD = "build:";
+
+    private final RedisScript<Long> updateScript = RedisScript.of(
+            new ClassPathResource("scripts/rank_update.lua"), Long.class);
+    private final RedisScript<Long> publishScript = RedisScript.of(
+            new ClassPathResource("scripts/rank_publish.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final SentimentSnapshotRepository snapshotRepository;
+    private final int[] tiers;
+    private final Duration buildLockTtl;
+
+    public LeaderboardService(StringRedisTemplate redisTemplate, SentimentSnapshotRepository snapshotRepository,
+            @Value("${leaderboard.min-feedback-tiers:1,5,20,100}") int[] tiers,
+            @Value("${leaderboard.rebuild-lock-ms:600000}") long buildLockMs) {
+        this.redisTemplate = redisTemplate;
+        this.snapshotRepository = snapshotRepository;
+        // Tier 1 holds every ranked entity, so any minimum has a tier to start from
+        this.tiers = IntStream.concat(IntStream.of(1), Arrays.stream(tiers)).filter(t -> t >= 1)
+                .distinct().sorted().toArray();
+        this.buildLockTtl = Duration.ofMillis(buildLockMs);
+    }
+
+    public enum Metric {
+        AVERAGE("avg"),
+        NEGATIVE("negative");
+
+        private final String key;
+
+        Metric(String key) {
+            this.key = key;
+        }
+    }
+
+    public record Entry(String id, double score, int feedbackCount) {
+    }
+
+    public static boolean isRanked(SnapshotTable table) {
+        return Arrays.asList(RANKED_TABLES).contains(table);
+    }
+
+    /**
+     * Rebuilds the leaderboards from the snapshot tables at startup when they
+     * are missing (first start, Redis data lost) or were built with other
+     * tiers. The build fills {@code <type>:rank:build:*} keys, which
+     * rank_publish.lua renames over the live ones in one step, so readers
+     * never see a partial board. One instance builds at a time, holding
+     * {@code <type>:rank:building}; flushes that run meanwhile update the
+     * build keys as well as the live ones.
+     */
+    @PostConstruct
+    public void rebuildIfMissing() {
+        String tiersValue = Arrays.toString(tiers);
+        for (SnapshotTable table : RANKED_TABLES) {
+            String type = table.name().toLowerCase();
+            String token = UUID.randomUUID().toString();
+            try {
+                String builtWith = redisTemplate.opsForValue().get(tiersKey(type));
+                if (tiersValue.equals(builtWith))
+                    continue;
+                if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey(type), token,
+                        buildLockTtl)))
+                    continue;
+
+                List<String> buildKeys = keys(type, BUILD);
+                redisTemplate.delete(buildKeys);
+                int[] rows = new int[1];
+                snapshotRepository.forEachChunk(table, REBUILD_CHUNK_SIZE, chunk -> {
+                    write(buildKeys, chunk);
+                    rows[0] += chunk.size();
+                });
+
+                List<String> publishKeys = new ArrayList<>(buildKeys);
+                publishKeys.addAll(keys(type, LIVE));
+                for (int tier : parseTiers(builtWith)) {
+                    if (Arrays.stream(tiers).noneMatch(t -> t == tier)) {
+                        publishKeys.add(rankKey(type, LIVE, Metric.AVERAGE, tier));
+                        publishKeys.add(rankKey(type, LIVE, Metric.NEGATIVE, tier));
+                    }
+                }
+                publishKeys.add(tiersKey(type));
+                publishKeys.add(lockKey(type));
+                Long published = redisTemplate.execute(publishScript, publishKeys,
+                        Integer.toString(buildKeys.size()), tiersValue, token);
+                if (published != null && published == 1)
+                    System.out.println("Rebuilt " + type + " leaderboards from " + rows[0] + " snapshots");
+                else
+                    System.err.println("Dropped " + type + " leaderboard rebuild: build lock expired");
+            } catch (Exception e) {
+                System.err.println("Failed to rebuild " + type + " leaderboards: " + e.getMessage());
+                if (token.equals(redisTemplate.opsForValue().get(lockKey(type))))
+                    redisTemplate.delete(lockKey(type));
+            }
+        }
+    }
+
+    /**
+     * Records the current totals of a chunk of entities in one script call,
+     * plus one more into the build keys while a rebuild is running. Feedback
+     * counts only grow, so an entity is never removed from a tier it once
+     * entered.
+     */
+    public void update(String type, List<SentimentSnapshot> snapshots) {
+        if (snapshots.isEmpty())
+            return;
+        write(keys(type, LIVE), snapshots);
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(lockKey(type))))
+            write(keys(type, BUILD), snapshots);
+    }
+
+    private void write(List<String> keys, List<SentimentSnapshot> snapshots) {
+        List<String> args = new ArrayList<>(1 + tiers.length + snapshots.size() * 4);
+        args.add(Integer.toString(tiers.length));
+        for (int tier : tiers) {
+            args.add(Integer.toString(tier));
+        }
+        for (SentimentSnapshot s : snapshots) {
+            if (s.feedbackCount() == 0)
+                continue;
+            args.add(s.id());
+            args.add(Integer.toString(s.feedbackCount()));
+            args.add(Double.toString(s.averageRating()));
+            args.add(Double.toString((double) s.negativeCount() / s.feedbackCount()));
+        }
+        redisTemplate.execute(updateScript, keys, args.toArray());
+    }
+
+    /**
+     * The {@code k} entities with the highest ({@code top}) or lowest score
+     * among those with at least {@code minFeedback} feedbacks.
+     */
+    public List<Entry> rank(SnapshotTable table, Metric metric, boolean top, int k, int minFeedback) {
+        String type = table.name().toLowerCase();
+        int tier = tiers[0];
+        for (int t : tiers) {
+            if (t <= minFeedback)
+                tier = t;
+        }
+        String key = rankKey(type, LIVE, metric, tier);
+        // Above the tier some members may be skipped, so read ahead
+        int pageSize = tier >= minFeedback ? k : k * 2;
+
+        List<Entry> entries = new ArrayList<>(k);
+        for (long offset = 0; entries.size() < k; offset += pageSize) {
+            Set<TypedTuple<String>> page = top
+                    ? redisTemplate.opsForZSet().reverseRangeWithScores(key, offset, offset + pageSize - 1)
+                    : redisTemplate.opsForZSet().rangeWithScores(key, offset, offset + pageSize - 1);
+            if (page == null || page.isEmpty())
+                break;
+
+            List<Object> ids = new ArrayList<>(page.size());
+            page.forEach(t -> ids.add(t.getValue()));
+            List<Object> counts = redisTemplate.opsForHash().multiGet(countKey(type, LIVE), ids);
+            int i = 0;
+            for (TypedTuple<String> t : page) {
+                Object count = counts.get(i++);
+                int feedbackCount = count == null ? 0 : Integer.parseInt(count.toString());
+                if (feedbackCount >= minFeedback && entries.size() < k)
+                    entries.add(new Entry(t.getValue(), t.getScore(), feedbackCount));
+            }
+            if (page.size() < pageSize)
+                break;
+        }
+        return entries;
+    }
+
+    /**
+     * Keys in rank_update.lua order: counts, average sets, negative sets.
+     */
+    private List<String> keys(String type, String prefix) {
+        List<String> keys = new ArrayList<>(1 + tiers.length * 2);
+        keys.add(countKey(type, prefix));
+        for (int tier : tiers) {
+            keys.add(rankKey(type, prefix, Metric.AVERAGE, tier));
+        }
+        for (int tier : tiers) {
+            keys.add(rankKey(type, prefix, Metric.NEGATIVE, tier));
+        }
+        return keys;
+    }
+
+    /**
+     * Tiers as stored in {@code <type>:rank:tiers}, e.g. "[1, 5, 20]".
+     */
+    private static int[] parseTiers(String value) {
+        if (value == null || value.length() < 3)
+            return new int[0];
+        return Arrays.stream(value.substring(1, value.length() - 1).split(", ")).mapToInt(Integer::parseInt)
+                .toArray();
+    }
+
+    private static String rankKey(String type, String prefix, Metric metric, int tier) {
+        return type + ":rank:" + prefix + metric.key + ":" + tier;
+    }
+
+    private static String countKey(String type, String prefix) {
+        return type + ":rank:" + prefix + "count";
+    }
+
+    private static String tiersKey(String type) {
+        return type + ":rank:tiers";
+    }
+
+    private static String lockKey(String type) {
+        return type + ":rank:building";
+    }
+}
@@ -0,0 +1,43 @@
+package com.moveinsync.sentimentProcessor.service;
+
+import com.moveinsync.sentimentProcessor.analyzer.HashedLinearModel;
+import com.moveinsync.sentimentProcessor.analyzer.SentimentAnalyzer;
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Classifies comments with a pre-trained {@link HashedLinearModel} loaded at
+ * startup from sentiment.model.location. Runs entirely in-process on the CPU.
+ */
+@Service
+@ConditionalOnProperty(name = "sentiment.analyzer", havingValue = "model")
+public class LinearModelSentimentAnalyzer implements SentimentAnalyzer {
+
+    private final HashedLinearModel model;
+
+    public LinearModelSentimentAnalyzer(@Value("${sentiment.model.location}") Resource modelResource) {
+        try (Reader reader = new InputStreamReader(modelResource.getInputStream(), StandardCharsets.UTF_8)) {
+            this.model = HashedLinearModel.parse(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load sentiment model from " + modelResource, e);
+        }
+        System.out.println("Loaded sentiment model from " + modelResource);
+    }
+
+    @Override
+    public SentimentLabel analyze(String text) {
+        if (text == null || text.isBlank()) {
+            return SentimentLabel.NEUTRAL;
+        }
+        return model.classify(text);
+    }
+}
@@ -0,0 +1,194 @@
+package com.moveinsync.sentimentProcessor.service;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Folds feedback metrics per (entityType, entityId) in memory and pushes the
+ * deltas to Redis every few hundred milliseconds or every N events, so hot
+ * drivers and trips cost one Redis update per flush instead of one per event.
+ *
+ * Writers only touch {@link LongAdder} cells of the current generation.
+ * A flush swaps in a fresh generation, waits for writers still inside the old
+ * one and then drains it, so no increment is lost. Pending deltas are also
+ * drained on shutdown; a hard crash can lose at most one flush interval.
+ *
+ * When a drain fails (Redis unreachable) its deltas are merged back and no
+ * drain is attempted for metrics.accumulator.retry-backoff-ms, so the
+ * consumer never waits on a Redis timeout per event. During such an outage
+ * the table grows past max-entries by the entities first seen in it.
+ */
+@Service
+@RequiredArgsConstructor
+public class MetricsAccumulator {
+
+    private final RedisMetricsWriter metricsWriter;
+
+    private final AtomicReference<Generation> current = new AtomicReference<>(new Generation());
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Value("${metrics.accumulator.flush-events:1000}")
+    private int flushEvents;
+
+    @Value("${metrics.accumulator.max-entries:50000}")
+    private int maxEntries;
+
+    @Value("${metrics.accumulator.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    // System.nanoTime before which no drain is attempted
+    private volatile long retryAt = System.nanoTime();
+
+    public void add(String entityType, String entityId, int rating, SentimentLabel sentiment) {
+        Generation gen = enter();
+        int pending;
+        try {
+            Cell cell = gen.cells.computeIfAbsent(entityType.toLowerCase() + ":" + entityId,
+                    k -> new Cell(entityType, entityId));
+            cell.ratingSum.add(rating);
+            cell.count.increment();
+            cell.sentimentCounts[sentiment.ordinal()].increment();
+            pending = gen.events.incrementAndGet();
+        } finally {
+            gen.writers.decrementAndGet();
+        }
+
+        if (backingOff())
+            return;
+        if (gen.cells.size() >= maxEntries) {
+            // Bound memory: the writer that overflows the table waits for a drain
+            flushLock.lock();
+            try {
+                if (current.get().cells.size() >= maxEntries && !backingOff())
+                    drain();
+            } finally {
+                flushLock.unlock();
+            }
+        } else if (pending >= flushEvents && flushLock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${metrics.accumulator.flush-interval-ms:250}")
+    public void flush() {
+        if (backingOff())
+            return;
+        flushLock.lock();
+        try {
+            drain();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        try {
+            drain();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private boolean backingOff() {
+        return System.nanoTime() - retryAt < 0;
+    }
+
+    private Generation enter() {
+        while (true) {
+            Generation gen = current.get();
+            gen.writers.incrementAndGet();
+            if (gen == current.get())
+                return gen;
+            // A flush swapped generations under us, retry against the new one
+            gen.writers.decrementAndGet();
+        }
+    }
+
+    private void drain() {
+        Generation old = current.get();
+        if (old.events.get() == 0)
+            return;
+
+        current.set(new Generation());
+        while (old.writers.get() > 0) {
+            Thread.onSpinWait();
+        }
+
+        List<EntityMetricsDelta> deltas = new ArrayList<>(old.cells.size());
+        for (Cell cell : old.cells.values()) {
+            EntityMetricsDelta delta = new EntityMetricsDelta(cell.entityType, cell.entityId);
+            delta.add(cell.ratingSum.sum(), cell.count.sum(),
+                    cell.sentimentCounts[SentimentLabel.POSITIVE.ordinal()].sum(),
+                    cell.sentimentCounts[SentimentLabel.NEUTRAL.ordinal()].sum(),
+                    cell.sentimentCounts[SentimentLabel.NEGATIVE.ordinal()].sum());
+            deltas.add(delta);
+        }
+
+        try {
+            metricsWriter.applyAll(deltas);
+        } catch (Exception e) {
+            System.err.println("Failed to flush " + deltas.size() + " metric deltas, retrying in " + retryBackoffMs
+                    + " ms: " + e.getMessage());
+            restore(old);
+            retryAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryBackoffMs);
+        }
+    }
+
+    private void restore(Generation old) {
+        Generation gen = enter();
+        try {
+            old.cells.forEach((key, cell) -> gen.cells.merge(key, cell, (existing, failed) -> {
+                existing.ratingSum.add(failed.ratingSum.sum());
+                existing.count.add(failed.count.sum());
+                for (int i = 0; i < existing.sentimentCounts.length; i++) {
+                    existing.sentimentCounts[i].add(failed.sentimentCounts[i].sum());
+                }
+                return existing;
+            }));
+            gen.events.addAndGet(old.events.get());
+        } finally {
+            gen.writers.decrementAndGet();
+        }
+    }
+
+    private static class Generation {
+        final ConcurrentHashMap<String, Cell> cells = new ConcurrentHashMap<>();
+        final AtomicInteger writers = new AtomicInteger();
+        final AtomicInteger events = new AtomicInteger();
+    }
+
+    private static class Cell {
+        final String entityType;
+        final String entityId;
+        final LongAdder ratingSum = new LongAdder();
+        final LongAdder count = new LongAdder();
+        final LongAdder[] sentimentCounts = new LongAdder[SentimentLabel.values().length];
+
+        Cell(String entityType, String entityId) {
+            this.entityType = entityType;
+            this.entityId = entityId;
+            for (int i = 0; i < sentimentCounts.length; i++) {
+                sentimentCounts[i] = new LongAdder();
+            }
+        }
+    }
+}
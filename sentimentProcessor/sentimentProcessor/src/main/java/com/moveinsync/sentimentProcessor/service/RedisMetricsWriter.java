@@ -0,0 +1,143 @@
+package com.moveinsync.sentimentProcessor.service;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import com.moveinsync.sentimentProcessor.entity.AppSentiment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Applies feedback metric deltas to Redis through a server-side script, so
+ * every entity costs one EVALSHA instead of eight separate commands. Batches
+ * are sent as a single pipeline.
+ */
+@Service
+@RequiredArgsConstructor
+public class RedisMetricsWriter {
+
+    private static final Set<String> DIRTY_TRACKED_TYPES = Set.of("driver", "trip", "marshal", "app");
+    private static final List<String> GLOBAL_KEYS = List.of(
+            "analytics:total_feedbacks",
+            "analytics:system_rating_sum",
+            "analytics:positive_total",
+            "analytics:neutral_total",
+            "analytics:negative_total");
+
+    private final RedisScript<Long> script = RedisScript.of(
+            new ClassPathResource("scripts/record_feedback.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final FlushKeys flushKeys;
+
+    private volatile boolean scriptLoaded;
+
+    /**
+     * Applies a single delta in one round-trip. EVALSHA falls back to EVAL
+     * when the script is not cached on the server yet.
+     */
+    public void apply(EntityMetricsDelta delta) {
+        redisTemplate.execute(script, keys(delta), (Object[]) args(delta));
+    }
+
+    /**
+     * Applies all deltas in one pipelined round-trip.
+     */
+    public void applyAll(Collection<EntityMetricsDelta> deltas) {
+        if (deltas.isEmpty())
+            return;
+
+        loadScript(false);
+        try {
+            pipeline(deltas);
+        } catch (DataAccessException e) {
+            if (!isNoScript(e))
+                throw e;
+            // Script cache was flushed (e.g. Redis restart), nothing was applied
+            loadScript(true);
+            pipeline(deltas);
+        }
+    }
+
+    private void pipeline(Collection<EntityMetricsDelta> deltas) {
+        String sha = script.getSha1();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (EntityMetricsDelta delta : deltas) {
+                List<String> keys = keys(delta);
+                String[] args = args(delta);
+                byte[][] keysAndArgs = new byte[keys.size() + args.length][];
+                for (int i = 0; i < keys.size(); i++) {
+                    keysAndArgs[i] = keys.get(i).getBytes(StandardCharsets.UTF_8);
+                }
+                for (int i = 0; i < args.length; i++) {
+                    keysAndArgs[keys.size() + i] = args[i].getBytes(StandardCharsets.UTF_8);
+                }
+                connection.scriptingCommands().evalSha(sha, ReturnType.INTEGER, keys.size(), keysAndArgs);
+            }
+            return null;
+        });
+    }
+
+    private void loadScript(boolean force) {
+        if (scriptLoaded && !force)
+            return;
+        byte[] body = script.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        redisTemplate.execute((RedisCallback<String>) connection -> connection.scriptingCommands().scriptLoad(body));
+        scriptLoaded = true;
+    }
+
+    private List<String> keys(EntityMetricsDelta delta) {
+        String type = delta.getEntityType();
+        String id = snapshotId(delta);
+        List<String> keys = new ArrayList<>(9);
+        if (DIRTY_TRACKED_TYPES.contains(type)) {
+            keys.add(flushKeys.metrics(type, id));
+            keys.addAll(GLOBAL_KEYS);
+            keys.add(type + ":active");
+            int slot = flushKeys.slot(id);
+            keys.add(flushKeys.dirty(type, slot));
+            keys.add(flushKeys.dirtySince(type, slot));
+        } else {
+            keys.add(flushKeys.totals(type, id));
+            keys.addAll(GLOBAL_KEYS);
+        }
+        return keys;
+    }
+
+    private String[] args(EntityMetricsDelta delta) {
+        return new String[] {
+                snapshotId(delta),
+                Long.toString(delta.getRatingSum()),
+                Long.toString(delta.getCount()),
+                Long.toString(delta.getSentimentCount(SentimentLabel.POSITIVE)),
+                Long.toString(delta.getSentimentCount(SentimentLabel.NEUTRAL)),
+                Long.toString(delta.getSentimentCount(SentimentLabel.NEGATIVE))
+        };
+    }
+
+    /**
+     * Id of the snapshot row a delta counts towards. App feedback is kept as
+     * a single app-wide aggregate rather than per user.
+     */
+    private static String snapshotId(EntityMetricsDelta delta) {
+        return delta.getEntityType().equals("app") ? AppSentiment.APP_ID : delta.getEntityId();
+    }
+
+    private boolean isNoScript(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains("NOSCRIPT"))
+                return true;
+        }
+        return false;
+    }
+}
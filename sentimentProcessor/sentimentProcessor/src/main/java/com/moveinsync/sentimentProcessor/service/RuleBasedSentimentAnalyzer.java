@@ -2,11 +2,21 @@ package com.moveinsync.sentimentProcessor.service;
 
 import com.moveinsync.sentimentProcessor.analyzer.SentimentAnalyzer;
 import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
+@ConditionalOnProperty(name = "sentiment.analyzer", havingValue = "rule")
 public class RuleBasedSentimentAnalyzer implements SentimentAnalyzer {
 
+    static final List<String> NEGATIVE_KEYWORDS = List.of(
+            "rude", "late", "bad", "dirty", "unsafe", "unprofessional", "poor", "slow");
+
+    static final List<String> POSITIVE_KEYWORDS = List.of(
+            "excellent", "good", "best", "clean", "polite", "safe", "punctual", "awesome");
+
     @Override
     public SentimentLabel analyze(String text) {
         if (text == null || text.trim().isEmpty()) {
@@ -16,17 +26,17 @@ public class RuleBasedSentimentAnalyzer implements SentimentAnalyzer {
         String lower = text.toLowerCase();
 
         // Negative indicators
-        if (lower.contains("rude") || lower.contains("late") || lower.contains("bad") ||
-                lower.contains("dirty") || lower.contains("unsafe") || lower.contains("unprofessional") ||
-                lower.contains("poor") || lower.contains("slow")) {
-            return SentimentLabel.NEGATIVE;
+        for (String keyword : NEGATIVE_KEYWORDS) {
+            if (lower.contains(keyword)) {
+                return SentimentLabel.NEGATIVE;
+            }
         }
 
         // Positive indicators
-        if (lower.contains("excellent") || lower.contains("good") || lower.contains("best") ||
-                lower.contains("clean") || lower.contains("polite") || lower.contains("safe") ||
-                lower.contains("punctual") || lower.contains("awesome")) {
-            return SentimentLabel.POSITIVE;
+        for (String keyword : POSITIVE_KEYWORDS) {
+            if (lower.contains(keyword)) {
+                return SentimentLabel.POSITIVE;
+            }
         }
 
         return SentimentLabel.NEUTRAL;
@@ -0,0 +1,55 @@
+-- Feedback tables are range-partitioned by created_at; monthly partitions are
+-- created and retired by FeedbackPartitionMaintenance. Runs on every startup
+-- before Hibernate, as a single statement, and is idempotent.
+DO $$
+DECLARE
+    t text[];
+    upper_bound timestamp;
+    next_id bigint;
+BEGIN
+    FOREACH t SLICE 1 IN ARRAY ARRAY[
+            ['driver_feedback', 'driver_id'],
+            ['trip_feedback', 'trip_id'],
+            ['marshal_feedback', 'marshal_id'],
+            ['app_feedback', 'user_id']] LOOP
+
+        -- A plain table created by ddl-auto=update becomes the oldest partition
+        IF EXISTS (SELECT 1 FROM pg_class WHERE oid = to_regclass(t[1]) AND relkind = 'r') THEN
+            EXECUTE format('ALTER TABLE %I RENAME TO %I', t[1], t[1] || '_legacy');
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', t[1] || '_legacy');
+            EXECUTE format('ALTER TABLE %I DROP CONSTRAINT IF EXISTS %I', t[1] || '_legacy', t[1] || '_pkey');
+        END IF;
+
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I (
+                id BIGSERIAL NOT NULL,
+                %I VARCHAR(255) NOT NULL,
+                rating INTEGER NOT NULL,
+                comment VARCHAR(255),
+                sentiment_label VARCHAR(255) NOT NULL,
+                created_at TIMESTAMP(6) NOT NULL,
+                PRIMARY KEY (id, created_at)
+            ) PARTITION BY RANGE (created_at)', t[1], t[2]);
+        -- Ids are handed out in blocks of 50 (pooled-lo), see the feedback entities
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', t[1] || '_id_seq');
+        -- Newest-first lookups and keyset pages per entity; created on every partition
+        EXECUTE format('CREATE INDEX IF NOT EXISTS %I ON %I (%I, created_at DESC, id DESC)',
+                t[1] || '_' || t[2] || '_created_at_idx', t[1], t[2]);
+        -- Newest-first listing and export across all entities
+        EXECUTE format('CREATE INDEX IF NOT EXISTS %I ON %I (created_at DESC, id DESC)',
+                t[1] || '_created_at_idx', t[1]);
+        -- Catches rows outside every monthly partition instead of failing the insert
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I DEFAULT', t[1] || '_default', t[1]);
+
+        IF to_regclass(t[1] || '_legacy') IS NOT NULL
+                AND NOT EXISTS (SELECT 1 FROM pg_inherits WHERE inhrelid = to_regclass(t[1] || '_legacy')) THEN
+            -- Covers everything up to the end of the current month, monthly
+            -- partitions take over from there
+            EXECUTE format('SELECT GREATEST(date_trunc(''month'', COALESCE(max(created_at), now())),
+                    date_trunc(''month'', now())) + interval ''1 month'', COALESCE(max(id), 0) + 1 FROM %I',
+                    t[1] || '_legacy') INTO upper_bound, next_id;
+            EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (MINVALUE) TO (%L)',
+                    t[1], t[1] || '_legacy', upper_bound);
+            PERFORM setval(pg_get_serial_sequence(t[1], 'id'), next_id, false);
+        END IF;
+    END LOOP;
+END $$
@@ -0,0 +1,43 @@
+-- Heartbeats one instance and rebalances flush slot leases, atomically.
+-- KEYS[1]  sorted set of live instances, scored by last heartbeat (ms)
+-- ARGV     instance id, slot count, lease ms, slot lease key prefix
+-- Each live instance gets at most ceil(slots / live instances) slots: surplus
+-- leases are released, held ones renewed and free ones claimed. Returns the
+-- slots now held. Lease keys are addressed by prefix, so this needs a single
+-- Redis node (not cluster).
+local me = ARGV[1]
+local slots = tonumber(ARGV[2])
+local lease = tonumber(ARGV[3])
+local prefix = ARGV[4]
+
+local t = redis.call('TIME')
+local now = t[1] * 1000 + math.floor(t[2] / 1000)
+redis.call('ZADD', KEYS[1], now, me)
+-- An instance that missed a whole lease period is gone
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - lease)
+local share = math.ceil(slots / redis.call('ZCARD', KEYS[1]))
+
+local held = {}
+for s = 0, slots - 1 do
+    if redis.call('GET', prefix .. s) == me then
+        held[#held + 1] = s
+    end
+end
+while #held > share do
+    redis.call('DEL', prefix .. table.remove(held))
+end
+for _, s in ipairs(held) do
+    redis.call('PEXPIRE', prefix .. s, lease)
+end
+
+if #held < share then
+    for s = 0, slots - 1 do
+        if redis.call('SET', prefix .. s, me, 'NX', 'PX', lease) then
+            held[#held + 1] = s
+            if #held >= share then
+                break
+            end
+        end
+    end
+end
+return held
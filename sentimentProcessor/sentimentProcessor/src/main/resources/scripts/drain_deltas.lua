@@ -0,0 +1,25 @@
+-- Moves up to ARGV[1] dirty entities' deltas into a pending batch, atomically.
+-- KEYS[1]  dirty set
+-- KEYS[2]  pending batch hash, id -> "ratingSum,count,positive,neutral,negative"
+-- KEYS[3]  pending batch index set
+-- ARGV     max entities, delta hash key prefix
+-- Returns the batch as a flat id, row list. The batch stays in Redis until
+-- the flush has applied it, so a crash in between replays it instead of
+-- losing it. Delta hashes are addressed by prefix, so this needs a single
+-- Redis node (not cluster).
+local ids = redis.call('SPOP', KEYS[1], ARGV[1])
+for _, id in ipairs(ids) do
+    local key = ARGV[2] .. id
+    local v = redis.call('HMGET', key, 'total_rating_sum', 'feedback_count',
+            'positive_count', 'neutral_count', 'negative_count')
+    redis.call('DEL', key)
+    if v[2] then
+        redis.call('HSET', KEYS[2], id, (v[1] or '0') .. ',' .. v[2] .. ',' .. (v[3] or '0') .. ','
+                .. (v[4] or '0') .. ',' .. (v[5] or '0'))
+    end
+end
+if #ids == 0 or redis.call('EXISTS', KEYS[2]) == 0 then
+    return {}
+end
+redis.call('SADD', KEYS[3], KEYS[2])
+return redis.call('HGETALL', KEYS[2])
@@ -0,0 +1,24 @@
+-- Replaces a type's live leaderboards with a finished rebuild in one step.
+-- KEYS[1..n]          rebuilt keys
+-- KEYS[n+1..2n]       live keys they replace
+-- KEYS[2n+1..#KEYS-2] live keys of tiers no longer configured
+-- KEYS[#KEYS-1]       tiers key, KEYS[#KEYS] build lock
+-- ARGV                n, tiers value, build lock token
+if redis.call('GET', KEYS[#KEYS]) ~= ARGV[3] then
+    -- The lock expired and another instance may be building
+    return 0
+end
+local n = tonumber(ARGV[1])
+for i = 2 * n + 1, #KEYS - 2 do
+    redis.call('DEL', KEYS[i])
+end
+for i = 1, n do
+    if redis.call('EXISTS', KEYS[i]) == 1 then
+        redis.call('RENAME', KEYS[i], KEYS[n + i])
+    else
+        redis.call('DEL', KEYS[n + i])
+    end
+end
+redis.call('SET', KEYS[#KEYS - 1], ARGV[2])
+redis.call('DEL', KEYS[#KEYS])
+return 1
@@ -0,0 +1,28 @@
+-- Records entity totals in a set of leaderboards. An entity whose stored
+-- feedback count is higher is skipped, so an older total never replaces a
+-- newer one whatever order writers arrive in.
+-- KEYS[1]            feedback count hash
+-- KEYS[2..t+1]       average rating sets, one per tier
+-- KEYS[t+2..2t+1]    negative share sets, one per tier
+-- ARGV[1]            t, the number of tiers
+-- ARGV[2..t+1]       tier minimums, ascending
+-- ARGV[t+2..]        id, feedback count, average rating, negative share per entity
+local t = tonumber(ARGV[1])
+local written = 0
+for i = t + 2, #ARGV, 4 do
+    local id = ARGV[i]
+    local count = tonumber(ARGV[i + 1])
+    local stored = tonumber(redis.call('HGET', KEYS[1], id) or '0')
+    if count >= stored then
+        redis.call('HSET', KEYS[1], id, count)
+        for j = 1, t do
+            if count < tonumber(ARGV[1 + j]) then
+                break
+            end
+            redis.call('ZADD', KEYS[1 + j], ARGV[i + 2], id)
+            redis.call('ZADD', KEYS[1 + t + j], ARGV[i + 3], id)
+        end
+        written = written + 1
+    end
+end
+return written
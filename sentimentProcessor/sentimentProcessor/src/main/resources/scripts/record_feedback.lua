@@ -0,0 +1,31 @@
+-- Applies one entity's feedback delta in a single round-trip.
+-- KEYS[1]    <type>:metrics:<id> hash, or the instance delta hash in delta flush mode
+-- KEYS[2..6] analytics:total_feedbacks, analytics:system_rating_sum,
+--            analytics:positive_total, analytics:neutral_total, analytics:negative_total
+-- KEYS[7..9] <type>:active, dirty set, dirty set :since (omitted for untracked types)
+-- ARGV       entity id, rating sum, count, positive, neutral, negative
+local ratingSum = tonumber(ARGV[2])
+local count = tonumber(ARGV[3])
+local fields = { 'positive_count', 'neutral_count', 'negative_count' }
+
+redis.call('HINCRBY', KEYS[1], 'total_rating_sum', ratingSum)
+redis.call('HINCRBY', KEYS[1], 'feedback_count', count)
+for i = 1, 3 do
+    local n = tonumber(ARGV[3 + i])
+    if n > 0 then
+        redis.call('HINCRBY', KEYS[1], fields[i], n)
+        redis.call('INCRBY', KEYS[3 + i], n)
+    end
+end
+
+redis.call('INCRBY', KEYS[2], count)
+redis.call('INCRBY', KEYS[3], ratingSum)
+
+if #KEYS > 6 then
+    redis.call('SADD', KEYS[7], ARGV[1])
+    redis.call('SADD', KEYS[8], ARGV[1])
+    -- Oldest unflushed mark, used by the adaptive flush scheduler
+    local t = redis.call('TIME')
+    redis.call('SET', KEYS[9], string.format('%d', t[1] * 1000 + math.floor(t[2] / 1000)), 'NX')
+end
+return count
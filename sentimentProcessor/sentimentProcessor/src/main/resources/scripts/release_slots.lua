@@ -0,0 +1,12 @@
+-- Leaves the flush group: drops the heartbeat and every lease still held,
+-- so the remaining instances pick the slots up on their next heartbeat.
+-- KEYS[1]  sorted set of live instances
+-- ARGV     instance id, slot count, slot lease key prefix
+local me = ARGV[1]
+redis.call('ZREM', KEYS[1], me)
+for s = 0, tonumber(ARGV[2]) - 1 do
+    if redis.call('GET', ARGV[3] .. s) == me then
+        redis.call('DEL', ARGV[3] .. s)
+    end
+end
+return 1
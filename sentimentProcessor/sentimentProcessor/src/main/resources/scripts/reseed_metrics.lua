@@ -0,0 +1,18 @@
+-- Adds an entity's stored snapshot back to its Redis totals after Redis lost
+-- them. Counters only grow, so a count below the stored one means a reset;
+-- once reseeded the count is at least the stored one, so a second call for
+-- the same reset does nothing.
+-- KEYS[1]  metrics hash of the entity
+-- KEYS[2]  dirty set of the entity's slot
+-- ARGV     entity id, stored rating sum, count, positive, neutral, negative
+local current = tonumber(redis.call('HGET', KEYS[1], 'feedback_count') or '0')
+if current >= tonumber(ARGV[3]) then
+    return 0
+end
+redis.call('HINCRBY', KEYS[1], 'total_rating_sum', ARGV[2])
+redis.call('HINCRBY', KEYS[1], 'feedback_count', ARGV[3])
+redis.call('HINCRBY', KEYS[1], 'positive_count', ARGV[4])
+redis.call('HINCRBY', KEYS[1], 'neutral_count', ARGV[5])
+redis.call('HINCRBY', KEYS[1], 'negative_count', ARGV[6])
+redis.call('SADD', KEYS[2], ARGV[1])
+return 1
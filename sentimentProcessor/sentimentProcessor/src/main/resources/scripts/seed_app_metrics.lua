@@ -0,0 +1,15 @@
+-- Adds the app_feedback history to the app-wide Redis totals, at most once.
+-- KEYS[1]  guard key, set by the first successful seed
+-- KEYS[2]  app metrics hash
+-- KEYS[3]  dirty set of the app id's slot
+-- ARGV     app id, rating sum, count, positive, neutral, negative
+if not redis.call('SET', KEYS[1], '1', 'NX') then
+    return 0
+end
+redis.call('HINCRBY', KEYS[2], 'total_rating_sum', ARGV[2])
+redis.call('HINCRBY', KEYS[2], 'feedback_count', ARGV[3])
+redis.call('HINCRBY', KEYS[2], 'positive_count', ARGV[4])
+redis.call('HINCRBY', KEYS[2], 'neutral_count', ARGV[5])
+redis.call('HINCRBY', KEYS[2], 'negative_count', ARGV[6])
+redis.call('SADD', KEYS[3], ARGV[1])
+return 1
@@ -0,0 +1,57 @@
+package com.moveinsync.sentimentProcessor.analyzer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchAnalysisTest {
+
+	private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+	private final SentimentAnalyzer analyzer = text -> {
+		threads.add(Thread.currentThread());
+		return SentimentLabel.values()[Integer.parseInt(text) % SentimentLabel.values().length];
+	};
+
+	@Test
+	void smallBatchStaysOnCallingThread() {
+		List<String> texts = texts(255);
+		assertEquals(expected(texts), analyzer.analyzeAll(texts));
+		assertEquals(Set.of(Thread.currentThread()), threads);
+	}
+
+	@Test
+	void largeBatchKeepsInputOrder() {
+		List<String> texts = texts(10_000);
+		assertEquals(expected(texts), analyzer.analyzeAll(texts, 64));
+		assertEquals(expected(texts), analyzer.analyzeAll(new LinkedList<>(texts), 64));
+	}
+
+	@Test
+	void thresholdBelowOneSplitsToSingleComments() {
+		List<String> texts = texts(100);
+		assertEquals(expected(texts), analyzer.analyzeAll(texts, 0));
+		assertEquals(List.of(), analyzer.analyzeAll(List.of(), 0));
+	}
+
+	private static List<String> texts(int n) {
+		List<String> texts = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			texts.add(Integer.toString(i));
+		}
+		return texts;
+	}
+
+	private static List<SentimentLabel> expected(List<String> texts) {
+		List<SentimentLabel> labels = new ArrayList<>(texts.size());
+		for (String text : texts) {
+			labels.add(SentimentLabel.values()[Integer.parseInt(text) % SentimentLabel.values().length]);
+		}
+		return labels;
+	}
+}
@@ -0,0 +1,69 @@
+package com.moveinsync.sentimentProcessor.analyzer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HashedLinearModelTest {
+
+	private static final String MODEL = """
+			# POSITIVE NEUTRAL NEGATIVE
+			dim 65536
+
+			bias 0 0.1 0
+			f good 2 0 0      # unigram
+			f late 0 0 2
+			f not good -4 0 2 # bigram
+			""";
+
+	@Test
+	void scoresUnigramsAndBigrams() throws IOException {
+		HashedLinearModel model = parse(MODEL);
+		assertEquals(SentimentLabel.POSITIVE, model.classify("good driver"));
+		assertEquals(SentimentLabel.NEGATIVE, model.classify("late again"));
+		assertEquals(SentimentLabel.NEGATIVE, model.classify("not good"));
+		assertEquals(SentimentLabel.NEUTRAL, model.classify(""));
+		assertEquals(SentimentLabel.NEUTRAL, model.classify("fine"));
+	}
+
+	@Test
+	void tokensAreCaseFoldedAndSplitOnPunctuation() throws IOException {
+		HashedLinearModel model = parse(MODEL);
+		assertEquals(SentimentLabel.POSITIVE, model.classify("GOOD!"));
+		assertEquals(SentimentLabel.NEGATIVE, model.classify("Not... Good"));
+	}
+
+	@Test
+	void negativeWinsTiesWithPositive() throws IOException {
+		HashedLinearModel model = parse("dim 65536\nf good 1 0 0\nf late 0 0 1\n");
+		assertEquals(SentimentLabel.NEGATIVE, model.classify("good, late"));
+	}
+
+	@Test
+	void rejectsMalformedLinesWithTheirLineNumber() {
+		assertError("Line 1: expected dim <size>", "dim\n");
+		assertError("Line 1: expected dim <size>", "dim 16 32\n");
+		assertError("Line 1: not a number: x", "dim x\n");
+		assertError("Line 1: dim must be a power of two", "dim 12\n");
+		assertError("Line 1: dim must precede features", "f good 1 0 0\n");
+		assertError("Line 2: expected 3 weights", "dim 16\nbias 1 0\n");
+		assertError("Line 2: expected one or two tokens", "dim 16\nf good 1 0\n");
+		assertError("Line 2: expected one or two tokens", "dim 16\nf\n");
+		assertError("Line 2: not a number: high", "dim 16\nbias high 0 0\n");
+		assertError("Line 2: unknown directive w", "dim 16\nw good 1 0 0\n");
+		assertError("Model has no dim directive", "bias 0 0 0\n");
+	}
+
+	private static void assertError(String message, String model) {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> parse(model));
+		assertEquals(message, e.getMessage());
+	}
+
+	private static HashedLinearModel parse(String model) throws IOException {
+		return HashedLinearModel.parse(new StringReader(model));
+	}
+}
@@ -0,0 +1,43 @@
+package com.moveinsync.sentimentProcessor.analyzer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeywordAutomatonTest {
+
+	private final KeywordAutomaton automaton = KeywordAutomaton.compile(Map.of("he", 1L, "she", 2L, "hers", 4L));
+
+	@Test
+	void findsOverlappingKeywordsInMixedCase() {
+		assertEquals(7L, automaton.scan("uSHeRs", 0));
+		assertEquals(1L, automaton.scan("The end", 0));
+		assertEquals(0L, automaton.scan("nothing here?", 0) & 6L);
+	}
+
+	@Test
+	void nonAsciiCharactersBreakMatches() {
+		assertEquals(0L, automaton.scan("h\u00FCe", 0));
+		assertEquals(3L, automaton.scan("\u00FCshe", 0));
+		// String.toLowerCase expands U+0130 to 'i' + U+0307, so no ASCII keyword matches
+		KeywordAutomaton in = KeywordAutomaton.compile(Map.of("in", 1L));
+		assertEquals(0L, in.scan("\u0130N", 0));
+		assertEquals(1L, in.scan("IN", 0));
+	}
+
+	@Test
+	void stopsOnceStopMaskIsSeen() {
+		KeywordAutomaton bits = KeywordAutomaton.compile(Map.of("bad", 1L, "good", 2L));
+		assertEquals(1L, bits.scan("bad but good", 1L));
+		assertEquals(3L, bits.scan("bad but good", 0));
+	}
+
+	@Test
+	void rejectsEmptyAndNonAsciiKeywords() {
+		assertThrows(IllegalArgumentException.class, () -> KeywordAutomaton.compile(Map.of("", 1L)));
+		assertThrows(IllegalArgumentException.class, () -> KeywordAutomaton.compile(Map.of("caf\u00E9", 1L)));
+	}
+}
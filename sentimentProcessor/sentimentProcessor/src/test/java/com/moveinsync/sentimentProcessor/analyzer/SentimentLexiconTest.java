@@ -0,0 +1,57 @@
+package com.moveinsync.sentimentProcessor.analyzer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SentimentLexiconTest {
+
+	@Test
+	void parsesTrimmedMixedCaseLinesAndSkipsComments() throws IOException {
+		SentimentLexicon lexicon = parse("""
+				# term,polarity,weight
+
+				  Great , positive , 2
+				LATE,Negative,1.0
+				great,POSITIVE,2
+				""");
+		assertEquals(2, lexicon.size());
+		assertEquals(SentimentLabel.POSITIVE, lexicon.classify("a GREAT ride"));
+		assertEquals(SentimentLabel.NEGATIVE, lexicon.classify("Late again"));
+		assertEquals(SentimentLabel.NEUTRAL, lexicon.classify("fine"));
+	}
+
+	@Test
+	void equalWeightsGoToNegative() throws IOException {
+		SentimentLexicon lexicon = parse("good,POSITIVE,1\nlate,NEGATIVE,1\n");
+		assertEquals(SentimentLabel.NEGATIVE, lexicon.classify("good driver but late"));
+		assertEquals(SentimentLabel.NEGATIVE, lexicon.classify("late but good driver"));
+	}
+
+	@Test
+	void heaviestTermWins() throws IOException {
+		SentimentLexicon lexicon = parse("excellent,POSITIVE,2\nlate,NEGATIVE,1\nunsafe,NEGATIVE,3\nsafe,POSITIVE,1\n");
+		assertEquals(SentimentLabel.POSITIVE, lexicon.classify("excellent, a bit late"));
+		assertEquals(SentimentLabel.NEGATIVE, lexicon.classify("excellent music, unsafe driving"));
+		assertEquals(SentimentLabel.POSITIVE, lexicon.classify("felt safe"));
+	}
+
+	@Test
+	void rejectsMalformedLines() {
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> parse("good,POSITIVE,1\nlate,NEGATIVE\n"));
+		assertTrue(e.getMessage().startsWith("Line 2:"), e.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> parse("meh,NEUTRAL,1\n"));
+		assertThrows(IllegalArgumentException.class, () -> parse("late,NEGATIVE,0\n"));
+		assertThrows(IllegalArgumentException.class, () -> parse("late,SAD,1\n"));
+	}
+
+	private static SentimentLexicon parse(String csv) throws IOException {
+		return SentimentLexicon.parse(new StringReader(csv));
+	}
+}
@@ -0,0 +1,57 @@
+package com.moveinsync.sentimentProcessor.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeedbackCursorTest {
+
+	private static final LocalDateTime FIRST = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000);
+	private static final LocalDateTime LAST = LocalDateTime.of(2024, 2, 29, 23, 59);
+
+	@Test
+	void nextCursorDecodesToLastRowPosition() {
+		Window<Long> window = window(true);
+		String cursor = FeedbackCursor.next(window);
+
+		KeysetScrollPosition position = (KeysetScrollPosition) FeedbackCursor.position(cursor);
+		assertEquals(LAST, position.getKeys().get("createdAt"));
+		assertEquals(42L, position.getKeys().get("id"));
+		assertTrue(position.scrollsForward());
+	}
+
+	@Test
+	void lastPageHasNoCursor() {
+		assertNull(FeedbackCursor.next(window(false)));
+		assertNull(FeedbackCursor.next(Window.from(List.of(), i -> ScrollPosition.keyset())));
+	}
+
+	@Test
+	void missingCursorStartsAtFirstPage() {
+		assertEquals(ScrollPosition.keyset(), FeedbackCursor.position(null));
+		assertEquals(ScrollPosition.keyset(), FeedbackCursor.position(""));
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		assertThrows(IllegalArgumentException.class, () -> FeedbackCursor.position("not a cursor!"));
+		assertThrows(IllegalArgumentException.class, () -> FeedbackCursor.position("MjAyNA"));
+	}
+
+	private static Window<Long> window(boolean hasNext) {
+		List<LocalDateTime> createdAt = List.of(FIRST, LAST);
+		List<Long> ids = List.of(7L, 42L);
+		return Window.from(ids,
+				i -> ScrollPosition.forward(Map.of("createdAt", createdAt.get(i), "id", ids.get(i))), hasNext);
+	}
+}
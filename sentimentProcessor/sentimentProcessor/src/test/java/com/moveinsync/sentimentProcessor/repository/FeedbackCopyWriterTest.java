@@ -0,0 +1,80 @@
+package com.moveinsync.sentimentProcessor.repository;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import com.moveinsync.sentimentProcessor.event.FeedbackEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FeedbackCopyWriterTest {
+
+	private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 1, 12, 30, 5);
+
+	@Test
+	void appendRowEscapesCopyText() {
+		StringBuilder line = new StringBuilder();
+		FeedbackCopyWriter.appendRow(line, 7, new FeedbackRow("d\\1", 4, "late\tagain\nand\r\\",
+				SentimentLabel.NEGATIVE, CREATED_AT));
+		assertEquals("7\td\\\\1\t4\tlate\\tagain\\nand\\r\\\\\tNEGATIVE\t2024-03-01T12:30:05\n", line.toString());
+	}
+
+	@Test
+	void appendRowWritesNullsAsBackslashN() {
+		StringBuilder line = new StringBuilder();
+		FeedbackCopyWriter.appendRow(line, 8, new FeedbackRow("d1", 5, null, null, null));
+		assertEquals("8\td1\t5\t\\N\t\\N\t\\N\n", line.toString());
+	}
+
+	@Test
+	void copyAllReportsRejectedRowsByEventIndex() {
+		RecordingCopyWriter writer = new RecordingCopyWriter();
+		List<FeedbackEvent> events = List.of(
+				event("DRIVER", "d1", "fine"),
+				event("BUS", "b1", "fine"),
+				event("trip", "t1", "reject"),
+				event("driver", "d2", "reject"),
+				event("APP", "u1", "fine"));
+		SentimentLabel[] labels = new SentimentLabel[events.size()];
+		Arrays.fill(labels, SentimentLabel.NEUTRAL);
+
+		BitSet rejected = writer.copyAll(events, labels);
+
+		BitSet expected = new BitSet();
+		expected.set(1, 4);
+		assertEquals(expected, rejected);
+		assertEquals(List.of("d1", "d2"), writer.entityIds.get(FeedbackTable.DRIVER));
+		assertEquals(List.of("t1"), writer.entityIds.get(FeedbackTable.TRIP));
+		assertEquals(List.of("u1"), writer.entityIds.get(FeedbackTable.APP));
+	}
+
+	private static FeedbackEvent event(String type, String id, String comment) {
+		return new FeedbackEvent(type, id, 3, comment, CREATED_AT);
+	}
+
+	// Rejects rows whose comment is "reject" instead of talking to Postgres
+	private static class RecordingCopyWriter extends FeedbackCopyWriter {
+		final Map<FeedbackTable, List<String>> entityIds = new EnumMap<>(FeedbackTable.class);
+
+		RecordingCopyWriter() {
+			super(null, null);
+		}
+
+		@Override
+		public BitSet copy(FeedbackTable table, List<FeedbackRow> rows) {
+			entityIds.put(table, rows.stream().map(FeedbackRow::entityId).toList());
+			BitSet rejected = new BitSet();
+			for (int i = 0; i < rows.size(); i++) {
+				if (rows.get(i).comment().equals("reject"))
+					rejected.set(i);
+			}
+			return rejected;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package com.moveinsync.sentimentProcessor.service;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The bundled lexicon must classify exactly like the contains() rules it
+ * replaced.
+ */
+class AhoCorasickSentimentAnalyzerTest {
+
+	private final RuleBasedSentimentAnalyzer rules = new RuleBasedSentimentAnalyzer();
+	private final AhoCorasickSentimentAnalyzer analyzer =
+			new AhoCorasickSentimentAnalyzer(new ClassPathResource("sentiment-lexicon.csv"), event -> {});
+
+	@Test
+	void matchesContainsRules() {
+		List<String> comments = List.of(
+				"",
+				"   ",
+				"nothing to report",
+				"Driver was RUDE",
+				"Good ride but LaTe",
+				"late but good",
+				"excellent driver, the cab was dirty",
+				"unsafe driving",
+				"felt Safe",
+				"polite and clean",
+				"badge on the dashboard",
+				"Tr\u00E8s bien, EXCELLENT \uD83D\uDC4D",
+				"\u00DCber-punctual",
+				"\u00C7ok k\u00F6t\u00FC, bad",
+				"\u0130yi ama SLOW",
+				"s\u0130ow",
+				"\u039A\u0391\u039B\u039F",
+				"sl\u00F6w and g\u00F6od");
+		for (String comment : comments) {
+			assertEquals(rules.analyze(comment), analyzer.analyze(comment), comment);
+		}
+	}
+
+	@Test
+	void firstNegativeKeywordWins() {
+		assertEquals(SentimentLabel.NEGATIVE, analyzer.analyze("awesome, punctual, best ever, slightly slow"));
+		assertEquals(SentimentLabel.NEUTRAL, analyzer.analyze(null));
+	}
+}
@@ -0,0 +1,51 @@
+package com.moveinsync.sentimentProcessor.service;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentAnalyzer;
+import com.moveinsync.sentimentProcessor.analyzer.SentimentAnalyzerReloadedEvent;
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CachingSentimentAnalyzerTest {
+
+	private final List<String> seen = new ArrayList<>();
+	private SentimentLabel answer = SentimentLabel.POSITIVE;
+	private final SentimentAnalyzer delegate = text -> {
+		seen.add(text);
+		return answer;
+	};
+	private final CachingSentimentAnalyzer analyzer =
+			new CachingSentimentAnalyzer(delegate, 100, 16, new SimpleMeterRegistry());
+
+	@Test
+	void missPassesOriginalTextAndHitSkipsDelegate() {
+		assertEquals(SentimentLabel.POSITIVE, analyzer.analyze("  Good "));
+		assertEquals(SentimentLabel.POSITIVE, analyzer.analyze("good"));
+		assertEquals(List.of("  Good "), seen);
+	}
+
+	@Test
+	void longAndNullCommentsBypassCache() {
+		String longComment = "a very long comment indeed";
+		analyzer.analyze(longComment);
+		analyzer.analyze(longComment);
+		analyzer.analyze(null);
+		assertEquals(3, seen.size());
+	}
+
+	@Test
+	void reloadInvalidatesCachedLabels() {
+		analyzer.analyze("late");
+		answer = SentimentLabel.NEGATIVE;
+		assertEquals(SentimentLabel.POSITIVE, analyzer.analyze("late"));
+
+		analyzer.onReload(new SentimentAnalyzerReloadedEvent(delegate));
+		assertEquals(SentimentLabel.NEGATIVE, analyzer.analyze("late"));
+		assertEquals(2, seen.size());
+	}
+}
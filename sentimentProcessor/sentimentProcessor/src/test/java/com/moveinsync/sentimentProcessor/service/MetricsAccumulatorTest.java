@@ -0,0 +1,118 @@
+package com.moveinsync.sentimentProcessor.service;
+
+import com.moveinsync.sentimentProcessor.analyzer.SentimentLabel;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetricsAccumulatorTest {
+
+	private final RecordingWriter writer = new RecordingWriter();
+	private final MetricsAccumulator accumulator = accumulator(1000, 50000, 200);
+
+	@Test
+	void flushSumsEventsPerEntity() {
+		accumulator.add("DRIVER", "d1", 5, SentimentLabel.POSITIVE);
+		accumulator.add("driver", "d1", 2, SentimentLabel.NEGATIVE);
+		accumulator.add("TRIP", "t1", 4, SentimentLabel.NEUTRAL);
+		accumulator.flush();
+
+		assertEquals(1, writer.batches.size());
+		List<EntityMetricsDelta> deltas = sorted(writer.batches.get(0));
+		assertEquals(2, deltas.size());
+		EntityMetricsDelta driver = deltas.get(0);
+		assertEquals("driver", driver.getEntityType());
+		assertEquals(7, driver.getRatingSum());
+		assertEquals(2, driver.getCount());
+		assertEquals(1, driver.getSentimentCount(SentimentLabel.POSITIVE));
+		assertEquals(1, driver.getSentimentCount(SentimentLabel.NEGATIVE));
+		assertEquals(1, deltas.get(1).getSentimentCount(SentimentLabel.NEUTRAL));
+	}
+
+	@Test
+	void drainedEventsAreNotSentTwice() {
+		accumulator.add("driver", "d1", 5, SentimentLabel.POSITIVE);
+		accumulator.flush();
+		accumulator.flush();
+		accumulator.shutdown();
+		assertEquals(1, writer.batches.size());
+	}
+
+	@Test
+	void drainsAfterFlushEventsOrMaxEntries() {
+		MetricsAccumulator byEvents = accumulator(3, 50000, 200);
+		byEvents.add("driver", "d1", 5, SentimentLabel.POSITIVE);
+		byEvents.add("driver", "d1", 5, SentimentLabel.POSITIVE);
+		assertEquals(0, writer.batches.size());
+		byEvents.add("driver", "d1", 5, SentimentLabel.POSITIVE);
+		assertEquals(1, writer.batches.size());
+
+		MetricsAccumulator byEntries = accumulator(1000, 2, 200);
+		byEntries.add("driver", "d1", 5, SentimentLabel.POSITIVE);
+		byEntries.add("driver", "d2", 5, SentimentLabel.POSITIVE);
+		assertEquals(2, writer.batches.size());
+	}
+
+	@Test
+	void failedDrainIsRestoredAndRetriedAfterBackoff() throws InterruptedException {
+		MetricsAccumulator accumulator = accumulator(2, 50000, 200);
+		writer.failures = 1;
+		accumulator.add("driver", "d1", 5, SentimentLabel.POSITIVE);
+		accumulator.add("driver", "d1", 3, SentimentLabel.POSITIVE);
+		assertEquals(1, writer.attempts);
+
+		// Backing off: neither more events nor the scheduled flush retry
+		accumulator.add("driver", "d1", 1, SentimentLabel.NEGATIVE);
+		accumulator.add("driver", "d1", 1, SentimentLabel.NEGATIVE);
+		accumulator.flush();
+		assertEquals(1, writer.attempts);
+
+		Thread.sleep(250);
+		accumulator.flush();
+		assertEquals(2, writer.attempts);
+		EntityMetricsDelta delta = writer.batches.get(0).iterator().next();
+		assertEquals(10, delta.getRatingSum());
+		assertEquals(4, delta.getCount());
+		assertEquals(2, delta.getSentimentCount(SentimentLabel.NEGATIVE));
+	}
+
+	private MetricsAccumulator accumulator(int flushEvents, int maxEntries, long retryBackoffMs) {
+		MetricsAccumulator accumulator = new MetricsAccumulator(writer);
+		ReflectionTestUtils.setField(accumulator, "flushEvents", flushEvents);
+		ReflectionTestUtils.setField(accumulator, "maxEntries", maxEntries);
+		ReflectionTestUtils.setField(accumulator, "retryBackoffMs", retryBackoffMs);
+		return accumulator;
+	}
+
+	private static List<EntityMetricsDelta> sorted(Collection<EntityMetricsDelta> deltas) {
+		List<EntityMetricsDelta> list = new ArrayList<>(deltas);
+		list.sort(Comparator.comparing(EntityMetricsDelta::getEntityType));
+		return list;
+	}
+
+	private static class RecordingWriter extends RedisMetricsWriter {
+		final List<Collection<EntityMetricsDelta>> batches = new ArrayList<>();
+		int attempts;
+		int failures;
+
+		RecordingWriter() {
+			super(null, null);
+		}
+
+		@Override
+		public void applyAll(Collection<EntityMetricsDelta> deltas) {
+			attempts++;
+			if (failures > 0) {
+				failures--;
+				throw new IllegalStateException("Redis down");
+			}
+			batches.add(new ArrayList<>(deltas));
+		}
+	}
+}